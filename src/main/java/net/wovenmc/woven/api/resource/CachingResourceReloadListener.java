@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.util.profiler.Profiler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a simple resource reload listener whose load stage is skipped when the resources it reads are unchanged.
+ * <p>
+ * Before each reload, the resources found under the declared prefixes are fingerprinted by content, across every pack.
+ * If the fingerprint matches the one of the last successful load, the data object of that load is reused
+ * and goes straight to the apply stage, which always runs.
+ * <p>
+ * As a data object may be applied several times, the apply stage must not modify it.
+ *
+ * @param <T> The data object.
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see IncrementalResourceReloadListener
+ */
+public abstract class CachingResourceReloadListener<T> implements SimpleResourceReloadListener<T> {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private volatile @Nullable CachedData<T> cachedData;
+
+	@Override
+	public CompletableFuture<Void> reload(ResourceReloadListener.Synchronizer helper, ResourceManager manager, Profiler loadProfiler, Profiler applyProfiler, Executor loadExecutor, Executor applyExecutor) {
+		ResourceReloadToken token = ResourceReloadToken.current();
+		return CompletableFuture.supplyAsync(() -> this.fingerprint(manager), loadExecutor).thenCompose(fingerprint -> {
+			CachedData<T> cachedData = this.cachedData;
+
+			if (fingerprint != null && cachedData != null && cachedData.fingerprint == fingerprint) {
+				return CompletableFuture.completedFuture(cachedData.data);
+			}
+
+			return this.load(manager, loadProfiler, loadExecutor).thenApply(data -> {
+				this.cachedData = fingerprint == null ? null : new CachedData<>(fingerprint, data);
+				return data;
+			});
+		}).thenApply(data -> {
+			// Don't hold the reload barrier with the data of a superseded reload.
+			token.throwIfCancelled();
+			return data;
+		}).thenCompose(helper::whenPrepared).thenCompose(
+				data -> this.apply(data, manager, applyProfiler, applyExecutor)
+		);
+	}
+
+	/**
+	 * Returns the resource prefixes the load stage reads, as given to
+	 * {@link ResourceManager#findResources(String, java.util.function.Predicate)},
+	 * for example {@code models} or {@code worldgen/biome}.
+	 *
+	 * @return The resource prefixes the load stage reads.
+	 */
+	public abstract Collection<String> getResourcePrefixes();
+
+	/**
+	 * Forgets the cached data object, the next reload will run the load stage.
+	 */
+	public void invalidate() {
+		this.cachedData = null;
+	}
+
+	private @Nullable Long fingerprint(ResourceManager manager) {
+		try {
+			return ResourceLoader.get().fingerprint(manager, this.getResourcePrefixes());
+		} catch (Exception e) {
+			LOGGER.warn("Cannot fingerprint the resources of listener \"" + this.getIdentifier() + "\", its data will be loaded.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Represents the data object of a load stage and the fingerprint of the resources it was loaded from.
+	 */
+	private static final class CachedData<T> {
+		private final long fingerprint;
+		private final T data;
+
+		private CachedData(long fingerprint, T data) {
+			this.fingerprint = fingerprint;
+			this.data = data;
+		}
+	}
+}
@@ -46,4 +46,13 @@ public interface IdentifiableResourceReloadListener extends ResourceReloadListen
 	default Collection<Identifier> getDependencies() {
 		return Collections.emptyList();
 	}
+
+	/**
+	 * Returns the phase of the reload in which this listener runs.
+	 *
+	 * @return The phase of this listener.
+	 */
+	default ResourceReloadPhase getPhase() {
+		return ResourceReloadPhase.NORMAL;
+	}
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import java.util.Collection;
+
+/**
+ * Represents an identifiable resource reload listener which is skipped when the resources it consumes are unchanged.
+ * <p>
+ * Before each reload, the resources found under the declared prefixes are fingerprinted by content, across every pack.
+ * If the fingerprint matches the one of the last successful reload of this listener, and every incremental listener
+ * it depends on is skipped as well, the listener isn't reloaded and keeps its previously applied state.
+ * <p>
+ * Dependencies on listeners which aren't incremental, like vanilla listeners, are assumed unchanged:
+ * a listener consuming the result of such a listener should declare the prefixes that listener reads too.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public interface IncrementalResourceReloadListener extends IdentifiableResourceReloadListener {
+	/**
+	 * Returns the resource prefixes this listener consumes, as given to
+	 * {@link net.minecraft.resource.ResourceManager#findResources(String, java.util.function.Predicate)},
+	 * for example {@code recipes} or {@code textures/block}.
+	 *
+	 * @return The resource prefixes this listener consumes.
+	 */
+	Collection<String> getResourcePrefixes();
+}
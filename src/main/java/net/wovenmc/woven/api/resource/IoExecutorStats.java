@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+/**
+ * Represents a snapshot of the activity of the resource I/O executor.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see ResourceLoader#getIoExecutor()
+ */
+public final class IoExecutorStats {
+	private final int threads;
+	private final int activeThreads;
+	private final int queueDepth;
+	private final int peakQueueDepth;
+	private final long completedTasks;
+	private final long queuedNanos;
+	private final long busyNanos;
+
+	public IoExecutorStats(int threads, int activeThreads, int queueDepth, int peakQueueDepth, long completedTasks, long queuedNanos, long busyNanos) {
+		this.threads = threads;
+		this.activeThreads = activeThreads;
+		this.queueDepth = queueDepth;
+		this.peakQueueDepth = peakQueueDepth;
+		this.completedTasks = completedTasks;
+		this.queuedNanos = queuedNanos;
+		this.busyNanos = busyNanos;
+	}
+
+	/**
+	 * Returns the maximum amount of threads of the executor.
+	 *
+	 * @return The maximum amount of threads.
+	 */
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/**
+	 * Returns the amount of threads currently running a task.
+	 *
+	 * @return The amount of active threads.
+	 */
+	public int getActiveThreads() {
+		return this.activeThreads;
+	}
+
+	/**
+	 * Returns the amount of tasks currently waiting for a thread.
+	 *
+	 * @return The queue depth.
+	 */
+	public int getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * Returns the highest amount of tasks which waited for a thread at once.
+	 *
+	 * @return The peak queue depth.
+	 */
+	public int getPeakQueueDepth() {
+		return this.peakQueueDepth;
+	}
+
+	/**
+	 * Returns the amount of tasks which finished running.
+	 *
+	 * @return The amount of completed tasks.
+	 */
+	public long getCompletedTasks() {
+		return this.completedTasks;
+	}
+
+	/**
+	 * Returns the time tasks spent waiting for a thread, summed over every task.
+	 *
+	 * @return The queued time in nanoseconds.
+	 */
+	public long getQueuedNanos() {
+		return this.queuedNanos;
+	}
+
+	/**
+	 * Returns the time tasks spent running, mostly blocked on I/O, summed over every task.
+	 *
+	 * @return The busy time in nanoseconds.
+	 */
+	public long getBusyNanos() {
+		return this.busyNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "IoExecutorStats{"
+				+ "threads=" + this.threads
+				+ ", activeThreads=" + this.activeThreads
+				+ ", queueDepth=" + this.queueDepth
+				+ ", peakQueueDepth=" + this.peakQueueDepth
+				+ ", completedTasks=" + this.completedTasks
+				+ ", queuedNanos=" + this.queuedNanos
+				+ ", busyNanos=" + this.busyNanos
+				+ '}';
+	}
+}
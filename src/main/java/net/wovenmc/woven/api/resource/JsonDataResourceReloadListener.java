@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import com.google.gson.stream.JsonReader;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a simple resource reload listener loading every JSON file under a resource prefix.
+ * <p>
+ * Each file is read into memory on the {@linkplain ResourceLoader#getIoExecutor() I/O executor} then parsed
+ * on the load executor with a {@link JsonReader}, so reads and parsing of different files overlap.
+ * Only a bounded window of files is read ahead of parsing, the bytes of every file are never held at once.
+ * The parsed values are merged in identifier order whatever order the tasks complete in,
+ * a file which cannot be read or parsed is reported and left out without failing the other files.
+ * <p>
+ * Example: a listener with the {@code machines} data type reads {@code data/<namespace>/machines/press.json}
+ * as {@code <namespace>:press}.
+ *
+ * @param <V> The type of the parsed values.
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public abstract class JsonDataResourceReloadListener<V> implements SimpleResourceReloadListener<Map<Identifier, V>> {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final String EXTENSION = ".json";
+	// Enough files read ahead to keep every I/O thread busy while the previous ones are parsed.
+	private static final int READ_WINDOW = ResourceLoader.get().getIoThreadCount() * 2;
+
+	private final String dataType;
+
+	/**
+	 * Creates a JSON data reload listener.
+	 *
+	 * @param dataType The resource prefix of the files, for example {@code machines}.
+	 */
+	protected JsonDataResourceReloadListener(String dataType) {
+		this.dataType = dataType;
+	}
+
+	@Override
+	public CompletableFuture<Map<Identifier, V>> load(ResourceManager manager, Profiler profiler, Executor executor) {
+		ResourceReloadToken token = ResourceReloadToken.current();
+		return CompletableFuture.supplyAsync(() -> {
+			List<Identifier> ids = new ArrayList<>(manager.findResources(this.dataType, ResourceQuery.extension("json")));
+			// Sort so that the merged values don't depend on the pack scan order.
+			ids.sort(null);
+			return ids;
+		}, executor).thenCompose(ids -> {
+			List<CompletableFuture<V>> futures = new ArrayList<>(ids.size());
+
+			for (int i = 0; i < ids.size(); i++) {
+				futures.add(new CompletableFuture<>());
+			}
+
+			FileLoader loader = new FileLoader(manager, ids, futures, token, executor);
+
+			for (int i = 0; i < Math.min(READ_WINDOW, ids.size()); i++) {
+				loader.loadNext();
+			}
+
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(unused -> {
+				Map<Identifier, V> values = new LinkedHashMap<>();
+
+				for (int i = 0; i < ids.size(); i++) {
+					V value = futures.get(i).join();
+
+					if (value != null) {
+						values.put(this.getDataId(ids.get(i)), value);
+					}
+				}
+
+				return Collections.unmodifiableMap(values);
+			});
+		});
+	}
+
+	/**
+	 * Returns the resource prefix of the files loaded by this listener.
+	 *
+	 * @return The resource prefix.
+	 */
+	public String getDataType() {
+		return this.dataType;
+	}
+
+	/**
+	 * Parses a JSON file. This runs concurrently with the parsing of other files and must be thread-safe.
+	 *
+	 * @param id     The identifier of the parsed value, without the data type and extension.
+	 * @param reader The reader of the file.
+	 * @return The parsed value, or {@code null} to leave the file out.
+	 * @throws IOException If the file cannot be read or is malformed.
+	 */
+	protected abstract V parse(Identifier id, JsonReader reader) throws IOException;
+
+	/**
+	 * Reports a file which cannot be read or parsed, the file is left out of the loaded values.
+	 *
+	 * @param id        The identifier of the file.
+	 * @param exception The exception thrown while reading or parsing the file.
+	 */
+	protected void onParseFailure(Identifier id, Exception exception) {
+		LOGGER.error("Couldn't parse data file {} of listener \"{}\".", id, this.getIdentifier(), exception);
+	}
+
+	private byte @Nullable [] readFile(ResourceManager manager, Identifier fileId) {
+		try (Resource resource = manager.getResource(fileId)) {
+			return IOUtils.toByteArray(resource.getInputStream());
+		} catch (Exception e) {
+			this.onParseFailure(fileId, e);
+			return null;
+		}
+	}
+
+	private @Nullable V parseFile(Identifier fileId, byte[] bytes) {
+		try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+			return this.parse(this.getDataId(fileId), reader);
+		} catch (Exception e) {
+			this.onParseFailure(fileId, e);
+			return null;
+		}
+	}
+
+	private Identifier getDataId(Identifier fileId) {
+		String path = fileId.getPath();
+		return new Identifier(fileId.getNamespace(), path.substring(this.dataType.length() + 1, path.length() - EXTENSION.length()));
+	}
+
+	/**
+	 * Represents the loading of the files of a reload, each file parsed starting the read of the next one.
+	 */
+	private final class FileLoader {
+		private final ResourceManager manager;
+		private final List<Identifier> ids;
+		private final List<CompletableFuture<V>> futures;
+		private final ResourceReloadToken token;
+		private final Executor executor;
+		private final Executor ioExecutor = ResourceLoader.get().getIoExecutor();
+		private final AtomicInteger next = new AtomicInteger();
+
+		private FileLoader(ResourceManager manager, List<Identifier> ids, List<CompletableFuture<V>> futures,
+				ResourceReloadToken token, Executor executor) {
+			this.manager = manager;
+			this.ids = ids;
+			this.futures = futures;
+			this.token = token;
+			this.executor = executor;
+		}
+
+		private void loadNext() {
+			int index = this.next.getAndIncrement();
+
+			if (index >= this.ids.size()) {
+				return;
+			}
+
+			Identifier id = this.ids.get(index);
+			// Skip the remaining files as soon as the reload is superseded.
+			CompletableFuture.supplyAsync(() -> {
+				this.token.throwIfCancelled();
+				return readFile(this.manager, id);
+			}, this.ioExecutor).thenApplyAsync(bytes -> {
+				this.token.throwIfCancelled();
+				return bytes == null ? null : parseFile(id, bytes);
+			}, this.executor).whenComplete((value, throwable) -> {
+				if (throwable != null) {
+					this.futures.get(index).completeExceptionally(throwable);
+				} else {
+					this.futures.get(index).complete(value);
+				}
+
+				this.loadNext();
+			});
+		}
+	}
+}
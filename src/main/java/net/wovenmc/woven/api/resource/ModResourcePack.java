@@ -18,6 +18,15 @@ package net.wovenmc.woven.api.resource;
 
 import net.fabricmc.loader.api.metadata.ModMetadata;
 import net.minecraft.resource.ResourcePack;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Collection;
 
 /**
  * Represents a mod-provided resource pack.
@@ -41,4 +50,54 @@ public interface ModResourcePack extends ResourcePack {
 	default ResourcePackActivationType getActivationType() {
 		return ResourcePackActivationType.NORMAL;
 	}
+
+	/**
+	 * Finds the resources matching the given query under the given prefix, at any depth.
+	 * <p>
+	 * Contrary to {@link #findResources(ResourceType, String, String, int, java.util.function.Predicate)},
+	 * implementations may answer this from an index instead of testing every file of the pack.
+	 *
+	 * @param type      The resource type.
+	 * @param namespace The namespace.
+	 * @param prefix    The directory to search in, for example {@code recipes}.
+	 * @param query     The file name query.
+	 * @return The identifiers of the matched resources.
+	 */
+	default Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, ResourceQuery query) {
+		return this.findResources(type, namespace, prefix, Integer.MAX_VALUE, query);
+	}
+
+	/**
+	 * Opens the given resource as a read-only byte buffer.
+	 * <p>
+	 * Implementations may map the resource in memory or read it directly into a direct buffer,
+	 * avoiding the intermediate copies of reading the {@link #open(ResourceType, Identifier) stream} into an array.
+	 * The returned buffer position is 0 and its limit is the resource size.
+	 *
+	 * @param type The resource type.
+	 * @param id   The identifier of the resource.
+	 * @return The resource content.
+	 * @throws IOException If the resource cannot be found or read.
+	 */
+	default ByteBuffer openBuffer(ResourceType type, Identifier id) throws IOException {
+		try (InputStream stream = this.open(type, id)) {
+			return ByteBuffer.wrap(IOUtils.toByteArray(stream)).asReadOnlyBuffer();
+		}
+	}
+
+	/**
+	 * Opens the given resource as a read-only seekable channel.
+	 * <p>
+	 * This allows to read large resources, like sounds, partially and out of order.
+	 * The default implementation reads the whole resource with {@link #openBuffer(ResourceType, Identifier)},
+	 * implementations should stream it with constant memory when possible.
+	 *
+	 * @param type The resource type.
+	 * @param id   The identifier of the resource.
+	 * @return The channel, which must be closed by the caller.
+	 * @throws IOException If the resource cannot be found or opened.
+	 */
+	default SeekableByteChannel openChannel(ResourceType type, Identifier id) throws IOException {
+		return ResourceLoader.get().openChannel(this.openBuffer(type, id));
+	}
 }
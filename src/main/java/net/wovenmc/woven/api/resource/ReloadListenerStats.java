@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents the cost of a resource reload listener during a reload.
+ * <p>
+ * Times and allocations are measured on the tasks the listener submits to the prepare and apply executors,
+ * and on the {@link net.minecraft.resource.ResourceReloadListener#reload reload} call itself, which counts as prepare.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see ResourceManagerHelper#getReloadListenerStats()
+ */
+public final class ReloadListenerStats {
+	private final String name;
+	private final @Nullable Identifier identifier;
+	private final long prepareNanos;
+	private final long applyNanos;
+	private final long cpuNanos;
+	private final long allocatedBytes;
+
+	public ReloadListenerStats(String name, @Nullable Identifier identifier, long prepareNanos, long applyNanos, long cpuNanos, long allocatedBytes) {
+		this.name = name;
+		this.identifier = identifier;
+		this.prepareNanos = prepareNanos;
+		this.applyNanos = applyNanos;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * Returns the name of the listener.
+	 *
+	 * @return The name of the listener.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the identifier of the listener.
+	 *
+	 * @return The identifier, or {@code null} if the listener isn't identifiable.
+	 */
+	public @Nullable Identifier getIdentifier() {
+		return this.identifier;
+	}
+
+	/**
+	 * Returns the wall time spent running the prepare tasks of the listener, summed over every task.
+	 *
+	 * @return The prepare time in nanoseconds.
+	 */
+	public long getPrepareNanos() {
+		return this.prepareNanos;
+	}
+
+	/**
+	 * Returns the wall time spent running the apply tasks of the listener, summed over every task.
+	 *
+	 * @return The apply time in nanoseconds.
+	 */
+	public long getApplyNanos() {
+		return this.applyNanos;
+	}
+
+	/**
+	 * Returns the CPU time spent running the tasks of the listener.
+	 *
+	 * @return The CPU time in nanoseconds, or {@code -1} if the JVM doesn't support measuring it.
+	 */
+	public long getCpuNanos() {
+		return this.cpuNanos;
+	}
+
+	/**
+	 * Returns the amount of bytes allocated by the tasks of the listener.
+	 *
+	 * @return The allocated bytes, or {@code -1} if the JVM doesn't support measuring it.
+	 */
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	/**
+	 * Returns the total wall time spent running the tasks of the listener.
+	 *
+	 * @return The prepare and apply time in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return this.prepareNanos + this.applyNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "ReloadListenerStats{"
+				+ "name='" + this.name + '\''
+				+ ", prepareNanos=" + this.prepareNanos
+				+ ", applyNanos=" + this.applyNanos
+				+ ", cpuNanos=" + this.cpuNanos
+				+ ", allocatedBytes=" + this.allocatedBytes
+				+ '}';
+	}
+}
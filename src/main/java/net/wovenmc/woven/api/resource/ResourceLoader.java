@@ -17,10 +17,19 @@
 package net.wovenmc.woven.api.resource;
 
 import net.fabricmc.loader.api.ModContainer;
+import net.minecraft.resource.ResourceManager;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 import net.wovenmc.woven.impl.resource.ResourceLoaderImpl;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Represents the resource loader.
  *
@@ -68,4 +77,80 @@ public interface ResourceLoader {
 	 * @return True if successfully registered the resource pack, else false.
 	 */
 	boolean registerBuiltinResourcePack(Identifier id, ModContainer container, ResourcePackActivationType activationType);
+
+	/**
+	 * Returns the executor for blocking resource reads.
+	 * <p>
+	 * The load executor given to reload listeners is the worker pool, sized for CPU-bound work:
+	 * a listener blocking it on reads holds back the parsing of every other listener.
+	 * Reading resource bytes on this bounded executor and parsing them on the load executor lets both overlap.
+	 * <p>
+	 * Example: {@code CompletableFuture.supplyAsync(() -> read(manager, id), ResourceLoader.get().getIoExecutor()).thenApplyAsync(this::parse, loadExecutor)}.
+	 *
+	 * @return The I/O executor.
+	 * @see #getIoExecutorStats()
+	 */
+	Executor getIoExecutor();
+
+	/**
+	 * Returns a snapshot of the activity of the I/O executor, like its queue depth and the time tasks spent blocked.
+	 *
+	 * @return The statistics of the I/O executor.
+	 */
+	IoExecutorStats getIoExecutorStats();
+
+	/**
+	 * Returns the number of threads of the I/O executor, which is the number of resource reads it runs at once.
+	 * <p>
+	 * Listeners reading ahead of their parsing may use it to size the number of reads in flight.
+	 *
+	 * @return The number of I/O threads.
+	 * @see #getIoExecutor()
+	 */
+	int getIoThreadCount();
+
+	/**
+	 * Returns a read-only seekable channel over the content of the given buffer.
+	 * <p>
+	 * The channel doesn't copy the buffer, nor changes its position.
+	 *
+	 * @param buffer The buffer to read.
+	 * @return The channel.
+	 * @see ModResourcePack#openChannel(ResourceType, Identifier)
+	 */
+	SeekableByteChannel openChannel(ByteBuffer buffer);
+
+	/**
+	 * Computes a fingerprint of the resources found under the given prefixes of a resource manager.
+	 * <p>
+	 * The fingerprint covers the identifier, the providing packs and the content of every resource and of its metadata,
+	 * so adding, removing, overriding or editing one of them changes it.
+	 *
+	 * @param manager  The resource manager.
+	 * @param prefixes The resource prefixes, for example {@code models}.
+	 * @return The fingerprint.
+	 * @throws IOException If a resource cannot be read.
+	 * @see CachingResourceReloadListener
+	 */
+	long fingerprint(ResourceManager manager, Collection<String> prefixes) throws IOException;
+
+	/**
+	 * Schedules the work units of a sliced apply stage on the game thread against the apply time budget,
+	 * must be called by the thread of the apply executor.
+	 *
+	 * @param units    The work units, run in order.
+	 * @param executor The apply executor.
+	 * @param manager  The resource manager of the reload.
+	 * @return A future completed once every unit ran, or exceptionally as soon as a unit fails.
+	 * @see SlicedResourceReloadListener
+	 */
+	CompletableFuture<Void> scheduleApplySlices(Iterator<? extends Runnable> units, Executor executor, ResourceManager manager);
+
+	/**
+	 * Returns the cancellation token of the reload the current thread works for.
+	 *
+	 * @return The token, never cancelled if the current thread doesn't work for a reload.
+	 * @see ResourceReloadToken#current()
+	 */
+	ResourceReloadToken getCurrentReloadToken();
 }
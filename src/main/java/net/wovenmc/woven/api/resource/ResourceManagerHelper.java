@@ -19,6 +19,8 @@ package net.wovenmc.woven.api.resource;
 import net.minecraft.resource.ResourceType;
 import net.wovenmc.woven.impl.resource.ResourceManagerHelperImpl;
 
+import java.util.List;
+
 /**
  * Helper for working with {@link net.minecraft.resource.ResourceManager} instances.
  *
@@ -42,4 +44,14 @@ public interface ResourceManagerHelper {
 	 * @param listener The resource reload listener.
 	 */
 	void registerReloadListener(IdentifiableResourceReloadListener listener);
+
+	/**
+	 * Returns the cost of every reload listener during the last reload of this resource manager type.
+	 * <p>
+	 * Statistics are only recorded if enabled with the {@code woven.resourceLoader.reloadStats} system property.
+	 * They are updated once a reload completes, a failed or superseded reload reports the work done until it stopped.
+	 *
+	 * @return The statistics, sorted from the most to the least expensive listener, empty if disabled or before the first reload.
+	 */
+	List<ReloadListenerStats> getReloadListenerStats();
 }
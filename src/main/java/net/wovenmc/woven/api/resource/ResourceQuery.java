@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Represents a file name filter which can be pushed down to the resource pack indexes.
+ * <p>
+ * A query is a regular path filter, it can be passed to
+ * {@link net.minecraft.resource.ResourceManager#findResources(String, Predicate)} as is,
+ * mod resource packs will then answer it from their extension index instead of testing every file.
+ * <p>
+ * Example: {@code manager.findResources("recipes", ResourceQuery.extension("json"))}.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see ModResourcePack#findResources(net.minecraft.resource.ResourceType, String, String, ResourceQuery)
+ */
+public final class ResourceQuery implements Predicate<String> {
+	private final String description;
+	private final @Nullable String extension;
+	private final @Nullable Pattern pattern;
+
+	private ResourceQuery(String description, @Nullable String extension, @Nullable Pattern pattern) {
+		this.description = description;
+		this.extension = extension;
+		this.pattern = pattern;
+	}
+
+	/**
+	 * Creates a query matching every file with the given extension.
+	 *
+	 * @param extension The extension, with or without the leading dot, for example {@code json}.
+	 * @return The query.
+	 */
+	public static ResourceQuery extension(String extension) {
+		if (extension.startsWith(".")) {
+			extension = extension.substring(1);
+		}
+
+		return new ResourceQuery("*." + extension, extension, null);
+	}
+
+	/**
+	 * Creates a query matching every file whose name matches the given glob.
+	 * <p>
+	 * Supported wildcards are {@code *} (any characters), {@code ?} (a single character)
+	 * and {@code {a,b}} (one of the alternatives). A glob ending with a literal extension,
+	 * like {@code *_overlay.png}, is still answered from the extension index.
+	 *
+	 * @param glob The glob matched against file names.
+	 * @return The query.
+	 */
+	public static ResourceQuery glob(String glob) {
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+		boolean inGroup = false;
+
+		for (char c : glob.toCharArray()) {
+			if (c == '*' || c == '?' || c == '{' || c == '}' || (c == ',' && inGroup)) {
+				if (literal.length() > 0) {
+					regex.append(Pattern.quote(literal.toString()));
+					literal.setLength(0);
+				}
+
+				switch (c) {
+				case '*':
+					regex.append(".*");
+					break;
+				case '?':
+					regex.append('.');
+					break;
+				case '{':
+					inGroup = true;
+					regex.append("(?:");
+					break;
+				case '}':
+					inGroup = false;
+					regex.append(')');
+					break;
+				default:
+					regex.append('|');
+					break;
+				}
+			} else {
+				literal.append(c);
+			}
+		}
+
+		String extension = null;
+
+		if (literal.length() > 0) {
+			String suffix = literal.toString();
+			regex.append(Pattern.quote(suffix));
+			int dot = suffix.lastIndexOf('.');
+
+			if (dot != -1) {
+				extension = suffix.substring(dot + 1);
+			}
+		}
+
+		return new ResourceQuery(glob, extension, Pattern.compile(regex.toString()));
+	}
+
+	/**
+	 * Returns the extension every matched file has, if known.
+	 *
+	 * @return The extension without the leading dot, or {@code null} if the query isn't restricted to an extension.
+	 */
+	public @Nullable String getExtension() {
+		return this.extension;
+	}
+
+	/**
+	 * Returns whether the given file name is matched by this query.
+	 *
+	 * @param fileName The file name.
+	 * @return True if the file name is matched, else false.
+	 */
+	@Override
+	public boolean test(String fileName) {
+		if (this.pattern != null) {
+			return this.pattern.matcher(fileName).matches();
+		}
+
+		return getExtension(fileName).equals(this.extension);
+	}
+
+	/**
+	 * Returns the extension of the given file name.
+	 *
+	 * @param fileName The file name.
+	 * @return The extension without the leading dot, or an empty string if the file has no extension.
+	 */
+	public static String getExtension(String fileName) {
+		int dot = fileName.lastIndexOf('.');
+		return dot == -1 ? "" : fileName.substring(dot + 1);
+	}
+
+	@Override
+	public String toString() {
+		return "ResourceQuery{" + this.description + "}";
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+/**
+ * Represents when a registered resource reload listener runs during a reload.
+ * <p>
+ * Dependencies always come first: a listener runs in the earliest phase of the listeners depending on it,
+ * directly or not, if earlier than its declared phase. For example, a normal listener a critical listener
+ * depends on runs in the critical phase.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see IdentifiableResourceReloadListener#getPhase()
+ */
+public enum ResourceReloadPhase {
+	/**
+	 * The listener is needed as soon as possible, like by the title screen: it is scheduled before other registered listeners.
+	 */
+	CRITICAL,
+	/**
+	 * The listener is part of the reload, scheduled in registration order.
+	 */
+	NORMAL,
+	/**
+	 * The listener isn't needed to finish the reload: it runs in the background once every other listener is applied,
+	 * the reload completes without waiting for it.
+	 * <p>
+	 * Only client resource reloads defer listeners. Server data must be complete once its reload completes,
+	 * so deferred listeners of server data reloads run in the normal phase.
+	 */
+	DEFERRED
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Represents the cancellation state of a resource reload.
+ * <p>
+ * A reload is cancelled once a newer reload of the same resource type starts, its results would be discarded anyway.
+ * Long prepare stages should check the token of their reload regularly and stop as soon as it is cancelled.
+ * <p>
+ * The token is bound to the thread while a listener reloads and while its tasks run on the reload executors
+ * or the {@linkplain ResourceLoader#getIoExecutor() I/O executor}, capture it with {@link #current()} before handing work to other executors.
+ * Example: {@code ResourceReloadToken token = ResourceReloadToken.current();} in
+ * {@link SimpleResourceReloadListener#load load}, then {@code token.throwIfCancelled();} between files.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public interface ResourceReloadToken {
+	/**
+	 * Returns the token of the reload the current thread works for.
+	 *
+	 * @return The token, never cancelled if the current thread doesn't work for a reload.
+	 */
+	static ResourceReloadToken current() {
+		return ResourceLoader.get().getCurrentReloadToken();
+	}
+
+	/**
+	 * Returns whether the reload is cancelled.
+	 *
+	 * @return True if the reload is cancelled, else false.
+	 */
+	boolean isCancelled();
+
+	/**
+	 * Throws if the reload is cancelled, failing the current stage.
+	 *
+	 * @throws CancellationException If the reload is cancelled.
+	 */
+	default void throwIfCancelled() {
+		if (this.isCancelled()) {
+			throw new CancellationException("The resource reload was superseded by a newer reload.");
+		}
+	}
+}
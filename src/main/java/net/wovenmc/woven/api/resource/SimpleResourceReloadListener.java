@@ -36,6 +36,9 @@ import java.util.concurrent.Executor;
  * The load stage should be self-contained as it can run on any thread! However,
  * the apply stage is guaranteed to run on the game thread.
  * <p>
+ * The load executor is sized for CPU-bound work, blocking reads of many resources should run on
+ * the {@linkplain ResourceLoader#getIoExecutor() I/O executor} instead.
+ * <p>
  * For a fully synchronous alternative, consider using
  * {@link net.minecraft.resource.SynchronousResourceReloadListener} in conjunction with
  * {@link IdentifiableResourceReloadListener}.
@@ -47,7 +50,12 @@ import java.util.concurrent.Executor;
 public interface SimpleResourceReloadListener<T> extends IdentifiableResourceReloadListener {
 	@Override
 	default CompletableFuture<Void> reload(ResourceReloadListener.Synchronizer helper, ResourceManager manager, Profiler loadProfiler, Profiler applyProfiler, Executor loadExecutor, Executor applyExecutor) {
-		return load(manager, loadProfiler, loadExecutor).thenCompose(helper::whenPrepared).thenCompose(
+		ResourceReloadToken token = ResourceReloadToken.current();
+		return load(manager, loadProfiler, loadExecutor).thenApply(data -> {
+			// Don't hold the reload barrier with the data of a superseded reload.
+			token.throwIfCancelled();
+			return data;
+		}).thenCompose(helper::whenPrepared).thenCompose(
 				data -> apply(data, manager, applyProfiler, applyExecutor)
 		);
 	}
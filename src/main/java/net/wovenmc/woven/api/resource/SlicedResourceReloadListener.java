@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.api.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.profiler.Profiler;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a simple resource reload listener whose apply stage is split into small work units.
+ * <p>
+ * Instead of applying all the data at once, the apply stage returns the work units to run. They run in order
+ * on the game thread, against a time budget: for client resources, units run at the start of each frame until the budget
+ * of the frame is spent, so a long apply stage is spread across frames instead of freezing the game.
+ * Other reloads run one budget worth of units per task of the apply executor.
+ * The budget is shared by every sliced listener of a reload, and at least one unit runs per frame.
+ * <p>
+ * Units are pulled lazily from the iterator, which may compute them as it goes.
+ * The game state is only partially applied until the last unit ran.
+ *
+ * @param <T> The data object.
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public interface SlicedResourceReloadListener<T> extends SimpleResourceReloadListener<T> {
+	@Override
+	default CompletableFuture<Void> apply(T data, ResourceManager manager, Profiler profiler, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> this.applySlices(data, manager, profiler), executor)
+				.thenCompose(units -> ResourceLoader.get().scheduleApplySlices(units, executor, manager));
+	}
+
+	/**
+	 * Returns the work units applying loaded data to the game state, called on the game thread.
+	 * Each unit should be short, a fraction of a millisecond.
+	 *
+	 * @param data     The loaded data object.
+	 * @param manager  The resource manager used during reloading.
+	 * @param profiler The profiler which may be used for this stage.
+	 * @return The work units, run in order on the game thread.
+	 */
+	Iterator<? extends Runnable> applySlices(T data, ResourceManager manager, Profiler profiler);
+}
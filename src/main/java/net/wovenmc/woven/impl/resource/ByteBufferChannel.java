@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Represents a read-only seekable channel over the content of a byte buffer.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class ByteBufferChannel implements SeekableByteChannel {
+	private final ByteBuffer buffer;
+	private boolean open = true;
+
+	public ByteBufferChannel(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+	}
+
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		this.ensureOpen();
+
+		if (!this.buffer.hasRemaining()) {
+			return -1;
+		}
+
+		int length = Math.min(dst.remaining(), this.buffer.remaining());
+		ByteBuffer slice = this.buffer.duplicate();
+		slice.limit(slice.position() + length);
+		dst.put(slice);
+		this.buffer.position(this.buffer.position() + length);
+		return length;
+	}
+
+	@Override
+	public int write(ByteBuffer src) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public long position() throws IOException {
+		this.ensureOpen();
+		return this.buffer.position();
+	}
+
+	@Override
+	public SeekableByteChannel position(long newPosition) throws IOException {
+		this.ensureOpen();
+
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("Negative position: " + newPosition);
+		}
+
+		this.buffer.position((int) Math.min(newPosition, this.buffer.limit()));
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		this.ensureOpen();
+		return this.buffer.limit();
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long size) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return this.open;
+	}
+
+	@Override
+	public void close() {
+		this.open = false;
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!this.open) {
+			throw new ClosedChannelException();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import com.google.common.base.Charsets;
+import net.fabricmc.loader.api.FabricLoader;
+import net.fabricmc.loader.api.ModContainer;
+import net.fabricmc.loader.api.metadata.ModMetadata;
+import net.minecraft.SharedConstants;
+import net.minecraft.resource.AbstractFileResourcePack;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import net.wovenmc.woven.api.resource.ModResourcePack;
+import net.wovenmc.woven.api.resource.ResourcePackActivationType;
+import net.wovenmc.woven.api.resource.ResourceQuery;
+import org.apache.commons.io.IOUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Represents the union of every mod resource pack of a resource type, exposed as a single resource pack.
+ * <p>
+ * Resources are looked up in a global index from path to owning packs, so lookups don't depend on the amount of mods.
+ * Owners are kept in pack order, the last owner overrides the previous ones like separate packs would.
+ * If a merged pack is directory-backed, the index and namespaces are computed again on every reload.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class CompositeModResourcePack extends AbstractFileResourcePack implements ModResourcePack {
+	private static final ModMetadata MOD_METADATA = FabricLoader.getInstance().getModContainer("woven_resource_loader")
+			.map(ModContainer::getMetadata).orElseThrow(() -> new IllegalStateException("Woven Resource Loader is not loaded."));
+	private final ResourceType type;
+	private final List<ModResourcePack> packs;
+	private final boolean fullyIndexed;
+	private final boolean directoryBacked;
+	private volatile Map<String, List<ModResourcePack>> owners;
+	private volatile int ownersGeneration;
+	private volatile Set<String> namespaces;
+	private volatile int namespacesGeneration;
+
+	public CompositeModResourcePack(ResourceType type, List<ModResourcePack> packs) {
+		super(null);
+		this.type = type;
+		this.packs = Collections.unmodifiableList(new ArrayList<>(packs));
+		this.fullyIndexed = packs.stream().allMatch(pack -> pack instanceof ModNioResourcePack);
+		this.directoryBacked = packs.stream().anyMatch(pack -> pack instanceof ModNioResourcePack && ((ModNioResourcePack) pack).isDirectoryBacked());
+	}
+
+	/**
+	 * Returns the mod resource packs merged in this resource pack.
+	 *
+	 * @return The mod resource packs, from the lowest to the highest priority.
+	 */
+	public List<ModResourcePack> getPacks() {
+		return this.packs;
+	}
+
+	/**
+	 * Returns the mod resource packs providing the given resource.
+	 *
+	 * @param type The resource type.
+	 * @param id   The identifier of the resource.
+	 * @return The mod resource packs, from the lowest to the highest priority.
+	 */
+	public List<ModResourcePack> getOwners(ResourceType type, Identifier id) {
+		if (type != this.type) {
+			return Collections.emptyList();
+		}
+
+		if (!this.fullyIndexed) {
+			// Packs without index can only be probed.
+			List<ModResourcePack> owners = new ArrayList<>();
+
+			for (ModResourcePack pack : this.packs) {
+				if (pack.contains(type, id)) {
+					owners.add(pack);
+				}
+			}
+
+			return owners;
+		}
+
+		List<ModResourcePack> owners = this.getOwnerIndex().get(type.getDirectory() + "/" + id.getNamespace() + "/" + id.getPath());
+		return owners == null ? Collections.emptyList() : owners;
+	}
+
+	private boolean isOutdated(int generation) {
+		return this.directoryBacked && generation != ModNioResourcePack.getReloadGeneration();
+	}
+
+	private Map<String, List<ModResourcePack>> getOwnerIndex() {
+		Map<String, List<ModResourcePack>> owners = this.owners;
+
+		if (owners == null || this.isOutdated(this.ownersGeneration)) {
+			synchronized (this) {
+				owners = this.owners;
+
+				if (owners == null || this.isOutdated(this.ownersGeneration)) {
+					int generation = ModNioResourcePack.getReloadGeneration();
+					owners = new HashMap<>();
+
+					for (ModResourcePack pack : this.packs) {
+						Map<String, List<ModResourcePack>> index = owners;
+						((ModNioResourcePack) pack).getIndex().forEach(this.type.getDirectory() + "/", path -> {
+							List<ModResourcePack> pathOwners = index.get(path);
+
+							if (pathOwners == null) {
+								index.put(path, Collections.singletonList(pack));
+							} else {
+								if (pathOwners.size() == 1) {
+									pathOwners = new ArrayList<>(pathOwners);
+									index.put(path, pathOwners);
+								}
+
+								pathOwners.add(pack);
+							}
+						});
+					}
+
+					this.ownersGeneration = generation;
+					this.owners = owners;
+				}
+			}
+		}
+
+		return owners;
+	}
+
+	private ModResourcePack getTopOwner(ResourceType type, Identifier id) throws FileNotFoundException {
+		List<ModResourcePack> owners = this.getOwners(type, id);
+
+		if (owners.isEmpty()) {
+			throw new FileNotFoundException("\"" + type.getDirectory() + "/" + id.getNamespace() + "/" + id.getPath() + "\" in " + this.getName());
+		}
+
+		return owners.get(owners.size() - 1);
+	}
+
+	@Override
+	public InputStream open(ResourceType type, Identifier id) throws IOException {
+		return this.getTopOwner(type, id).open(type, id);
+	}
+
+	@Override
+	public ByteBuffer openBuffer(ResourceType type, Identifier id) throws IOException {
+		return this.getTopOwner(type, id).openBuffer(type, id);
+	}
+
+	@Override
+	public SeekableByteChannel openChannel(ResourceType type, Identifier id) throws IOException {
+		return this.getTopOwner(type, id).openChannel(type, id);
+	}
+
+	@Override
+	public boolean contains(ResourceType type, Identifier id) {
+		return !this.getOwners(type, id).isEmpty();
+	}
+
+	@Override
+	protected InputStream openFile(String filePath) throws IOException {
+		if (filePath.equals("pack.mcmeta")) {
+			String content = String.format("{\"pack\":{\"pack_format\":%d,\"description\":\"%s\"}}",
+					SharedConstants.getGameVersion().getPackVersion(), this.getName());
+			return IOUtils.toInputStream(content, Charsets.UTF_8);
+		}
+
+		throw new FileNotFoundException("\"" + filePath + "\" in " + this.getName());
+	}
+
+	@Override
+	protected boolean containsFile(String filePath) {
+		return filePath.equals("pack.mcmeta");
+	}
+
+	@Override
+	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter) {
+		Set<Identifier> identifiers = new LinkedHashSet<>();
+
+		for (ModResourcePack pack : this.packs) {
+			if (pack.getNamespaces(type).contains(namespace)) {
+				identifiers.addAll(pack.findResources(type, namespace, prefix, maxDepth, pathFilter));
+			}
+		}
+
+		return identifiers;
+	}
+
+	@Override
+	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, ResourceQuery query) {
+		Set<Identifier> identifiers = new LinkedHashSet<>();
+
+		for (ModResourcePack pack : this.packs) {
+			if (pack.getNamespaces(type).contains(namespace)) {
+				identifiers.addAll(pack.findResources(type, namespace, prefix, query));
+			}
+		}
+
+		return identifiers;
+	}
+
+	@Override
+	public Set<String> getNamespaces(ResourceType type) {
+		if (type != this.type) {
+			return Collections.emptySet();
+		}
+
+		Set<String> namespaces = this.namespaces;
+
+		if (namespaces == null || this.isOutdated(this.namespacesGeneration)) {
+			int generation = ModNioResourcePack.getReloadGeneration();
+			namespaces = new LinkedHashSet<>();
+
+			for (ModResourcePack pack : this.packs) {
+				namespaces.addAll(pack.getNamespaces(type));
+			}
+
+			this.namespacesGeneration = generation;
+			this.namespaces = namespaces = Collections.unmodifiableSet(namespaces);
+		}
+
+		return namespaces;
+	}
+
+	@Override
+	public void close() {
+		for (ModResourcePack pack : this.packs) {
+			pack.close();
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "Mod Resources";
+	}
+
+	@Override
+	public ModMetadata getModMetadata() {
+		return MOD_METADATA;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The merged mod resource packs are always enabled, so is this resource pack.
+	 */
+	@Override
+	public ResourcePackActivationType getActivationType() {
+		return ResourcePackActivationType.ALWAYS_ENABLED;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.util.profiler.DummyProfiler;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ResourceReloadToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents the deferred reload listeners, run in the background once the rest of the reload is applied.
+ * <p>
+ * The group is the last listener of a reload: its turn comes once every other listener is applied,
+ * it then starts its members, scheduled by their dependencies, and lets the reload complete right away.
+ * Only client resource reloads have this group, so members may apply after the reloaded resource manager is in use.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see net.wovenmc.woven.api.resource.ResourceReloadPhase#DEFERRED
+ */
+public class DeferredReloadListenerGroup implements ResourceReloadListener {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final List<IdentifiableResourceReloadListener> listeners;
+
+	/**
+	 * Creates a group of deferred listeners.
+	 *
+	 * @param listeners The listeners, sorted so that every listener comes after its dependencies.
+	 */
+	public DeferredReloadListenerGroup(List<IdentifiableResourceReloadListener> listeners) {
+		this.listeners = listeners;
+	}
+
+	@Override
+	public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+			Executor prepareExecutor, Executor applyExecutor) {
+		ResourceReloadToken token = ResourceReloadToken.current();
+
+		return synchronizer.<Void>whenPrepared(null).thenRun(() -> {
+			if (token.isCancelled()) {
+				// A newer reload started, it will run the deferred listeners itself.
+				return;
+			}
+
+			// Detached from the reload, the members are only held back by their own dependencies.
+			// They outlive the reload, so they must not use its profilers.
+			ReloadCancellation.run(token, () -> new DependencyReloadListenerGroup(this.listeners).reload(new Synchronizer() {
+				@Override
+				public <T> CompletableFuture<T> whenPrepared(T preparedObject) {
+					return CompletableFuture.completedFuture(preparedObject);
+				}
+			}, manager, DummyProfiler.INSTANCE, DummyProfiler.INSTANCE, prepareExecutor, applyExecutor).whenComplete((unused, throwable) -> {
+				if (throwable != null && !token.isCancelled()) {
+					LOGGER.error("Deferred resource reload listeners failed to reload.", throwable);
+				}
+			}));
+		});
+	}
+
+	/**
+	 * Returns the listeners of this group.
+	 *
+	 * @return The listeners, sorted so that every listener comes after its dependencies.
+	 */
+	public List<IdentifiableResourceReloadListener> getListeners() {
+		return this.listeners;
+	}
+
+	@Override
+	public String getName() {
+		return "Woven deferred listeners (" + this.listeners.size() + ")";
+	}
+}
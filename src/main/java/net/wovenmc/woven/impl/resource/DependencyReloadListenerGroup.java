@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.DummyProfiler;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents the registered reload listeners scheduled by their dependencies instead of the global reload barrier.
+ * <p>
+ * Vanilla runs the apply stage of a listener only once every listener finished its prepare stage
+ * and the previous listener finished its apply stage. Instead, the apply stage of a member runs once the vanilla
+ * listeners are applied, as soon as its own prepare stage and its declared dependencies finished, without waiting
+ * for the other members. Dependencies outside of the group, like vanilla listeners, are thus always finished.
+ * <p>
+ * Apply stages still run on the apply executor, members must not read state applied by other listeners
+ * they don't depend on, in either stage.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class DependencyReloadListenerGroup implements ResourceReloadListener {
+	private final List<IdentifiableResourceReloadListener> listeners;
+
+	/**
+	 * Creates a group of listeners.
+	 *
+	 * @param listeners The listeners, sorted so that every listener comes after its dependencies.
+	 */
+	public DependencyReloadListenerGroup(List<IdentifiableResourceReloadListener> listeners) {
+		this.listeners = listeners;
+	}
+
+	@Override
+	public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+			Executor prepareExecutor, Executor applyExecutor) {
+		// Signal the global barrier immediately, the members don't hold back vanilla listeners anymore.
+		CompletableFuture<Void> vanillaApplied = synchronizer.whenPrepared(null);
+		Map<Identifier, CompletableFuture<Void>> futures = new HashMap<>();
+		List<CompletableFuture<Void>> all = new ArrayList<>();
+		all.add(vanillaApplied);
+
+		for (IdentifiableResourceReloadListener listener : this.listeners) {
+			List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+			// Every member still applies after the vanilla listeners, like in a vanilla reload.
+			dependencies.add(vanillaApplied);
+
+			for (Identifier dependency : listener.getDependencies()) {
+				CompletableFuture<Void> future = futures.get(dependency);
+
+				if (future != null) {
+					dependencies.add(future);
+				}
+			}
+
+			CompletableFuture<Void> ready = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]));
+			// Members run concurrently, the profilers of the group aren't thread-safe and cannot be shared.
+			CompletableFuture<Void> future = listener.reload(new Synchronizer() {
+				@Override
+				public <T> CompletableFuture<T> whenPrepared(T preparedObject) {
+					return ready.thenApply(unused -> preparedObject);
+				}
+			}, manager, DummyProfiler.INSTANCE, DummyProfiler.INSTANCE, prepareExecutor, applyExecutor);
+
+			futures.put(listener.getIdentifier(), future);
+			all.add(future);
+		}
+
+		return CompletableFuture.allOf(all.toArray(new CompletableFuture[0]));
+	}
+
+	/**
+	 * Returns the listeners of this group.
+	 *
+	 * @return The listeners, sorted so that every listener comes after its dependencies.
+	 */
+	public List<IdentifiableResourceReloadListener> getListeners() {
+		return this.listeners;
+	}
+
+	@Override
+	public String getName() {
+		return "Woven dependency-scheduled listeners (" + this.listeners.size() + ")";
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Represents a read-only seekable channel over a region of a file, like an uncompressed entry of a JAR file.
+ * <p>
+ * Reads are positional, the content is never buffered in memory. Closing this channel closes the file channel.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class FileChannelSlice implements SeekableByteChannel {
+	private final FileChannel channel;
+	private final long offset;
+	private final long size;
+	private long position;
+
+	public FileChannelSlice(FileChannel channel, long offset, long size) {
+		this.channel = channel;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		this.ensureOpen();
+
+		if (this.position >= this.size) {
+			return -1;
+		}
+
+		int length = (int) Math.min(dst.remaining(), this.size - this.position);
+		int limit = dst.limit();
+		dst.limit(dst.position() + length);
+
+		try {
+			int read = this.channel.read(dst, this.offset + this.position);
+
+			if (read > 0) {
+				this.position += read;
+			}
+
+			return read;
+		} finally {
+			dst.limit(limit);
+		}
+	}
+
+	@Override
+	public int write(ByteBuffer src) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public long position() throws IOException {
+		this.ensureOpen();
+		return this.position;
+	}
+
+	@Override
+	public SeekableByteChannel position(long newPosition) throws IOException {
+		this.ensureOpen();
+
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("Negative position: " + newPosition);
+		}
+
+		this.position = newPosition;
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		this.ensureOpen();
+		return this.size;
+	}
+
+	@Override
+	public SeekableByteChannel truncate(long size) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return this.channel.isOpen();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!this.channel.isOpen()) {
+			throw new ClosedChannelException();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ResourceReloadPhase;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a reload listener whose prepare and apply tasks are measured.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public class InstrumentedReloadListener implements ResourceReloadListener {
+	private final ResourceReloadListener delegate;
+	private final ReloadListenerInstrumentation.Recorder recorder;
+
+	InstrumentedReloadListener(ResourceReloadListener delegate, ReloadListenerInstrumentation.Recorder recorder) {
+		this.delegate = delegate;
+		this.recorder = recorder;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+			Executor prepareExecutor, Executor applyExecutor) {
+		Executor measuredPrepareExecutor = task -> prepareExecutor.execute(() -> this.recorder.measure(task, true));
+		Executor measuredApplyExecutor = task -> applyExecutor.execute(() -> this.recorder.measure(task, false));
+		CompletableFuture<Void>[] future = new CompletableFuture[1];
+
+		// Work done directly in the reload call counts as prepare.
+		this.recorder.measure(() -> future[0] = this.delegate.reload(synchronizer, manager, prepareProfiler, applyProfiler,
+				measuredPrepareExecutor, measuredApplyExecutor), true);
+
+		return future[0].whenComplete((unused, throwable) -> this.recorder.complete());
+	}
+
+	/**
+	 * Returns the instrumented listener.
+	 *
+	 * @return The instrumented listener.
+	 */
+	public ResourceReloadListener getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+
+	/**
+	 * Represents an instrumented identifiable reload listener, keeping its identifier and dependencies.
+	 */
+	static final class Identifiable extends InstrumentedReloadListener implements IdentifiableResourceReloadListener {
+		private final IdentifiableResourceReloadListener delegate;
+
+		Identifiable(IdentifiableResourceReloadListener delegate, ReloadListenerInstrumentation.Recorder recorder) {
+			super(delegate, recorder);
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Identifier getIdentifier() {
+			return this.delegate.getIdentifier();
+		}
+
+		@Override
+		public Collection<Identifier> getDependencies() {
+			return this.delegate.getDependencies();
+		}
+
+		@Override
+		public ResourceReloadPhase getPhase() {
+			return this.delegate.getPhase();
+		}
+	}
+}
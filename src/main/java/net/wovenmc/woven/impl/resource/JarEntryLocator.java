@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locates the data of the entries stored without compression in a JAR file, by reading its ZIP central directory once.
+ * <p>
+ * Knowing where an uncompressed entry lives in the JAR allows to map or seek it directly instead of going through
+ * the ZIP file system streams. ZIP64 archives are not supported, no entry is located in them.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class JarEntryLocator {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final Map<Path, JarEntryLocator> LOCATORS = new ConcurrentHashMap<>();
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+	private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+	private static final int MAX_COMMENT_SIZE = 0xFFFF;
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int METHOD_STORED = 0;
+
+	private final Path jar;
+	private final Map<String, StoredEntry> storedEntries;
+
+	private JarEntryLocator(Path jar, Map<String, StoredEntry> storedEntries) {
+		this.jar = jar;
+		this.storedEntries = storedEntries;
+	}
+
+	/**
+	 * Returns the locator of the given JAR file, reads its central directory on first access.
+	 *
+	 * @param jar The JAR file path.
+	 * @return The locator.
+	 */
+	public static JarEntryLocator get(Path jar) {
+		return LOCATORS.computeIfAbsent(jar.toAbsolutePath(), JarEntryLocator::read);
+	}
+
+	private static JarEntryLocator read(Path jar) {
+		try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+			return new JarEntryLocator(jar, readStoredEntries(channel));
+		} catch (IOException e) {
+			LOGGER.warn("Cannot read the central directory of \"" + jar + "\".", e);
+			return new JarEntryLocator(jar, Collections.emptyMap());
+		}
+	}
+
+	private static Map<String, StoredEntry> readStoredEntries(FileChannel channel) throws IOException {
+		long size = channel.size();
+		int tailLength = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+		ByteBuffer tail = readFully(channel, size - tailLength, tailLength);
+		int end = -1;
+
+		// The end of central directory record is followed by a variable length comment, search it backwards.
+		for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+			if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+				end = i;
+				break;
+			}
+		}
+
+		if (end == -1) {
+			throw new IOException("Cannot find the end of central directory record.");
+		}
+
+		long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+		long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+
+		if (directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+			// ZIP64, not supported.
+			return Collections.emptyMap();
+		}
+
+		ByteBuffer directory = readFully(channel, directoryOffset, (int) directorySize);
+		Map<String, StoredEntry> entries = new HashMap<>();
+
+		while (directory.remaining() >= 46 && directory.getInt(directory.position()) == CENTRAL_DIRECTORY_SIGNATURE) {
+			int position = directory.position();
+			int method = directory.getShort(position + 10) & 0xFFFF;
+			long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+			long uncompressedSize = directory.getInt(position + 24) & 0xFFFFFFFFL;
+			int nameLength = directory.getShort(position + 28) & 0xFFFF;
+			int extraLength = directory.getShort(position + 30) & 0xFFFF;
+			int commentLength = directory.getShort(position + 32) & 0xFFFF;
+			long localHeaderOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+
+			if (method == METHOD_STORED && compressedSize == uncompressedSize && compressedSize != 0xFFFFFFFFL
+					&& localHeaderOffset != 0xFFFFFFFFL) {
+				byte[] name = new byte[nameLength];
+				directory.position(position + 46);
+				directory.get(name);
+				entries.put(new String(name, StandardCharsets.UTF_8), new StoredEntry(localHeaderOffset, uncompressedSize));
+			}
+
+			directory.position(position + 46 + nameLength + extraLength + commentLength);
+		}
+
+		return entries;
+	}
+
+	private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) == -1) {
+				throw new IOException("Unexpected end of file.");
+			}
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Returns the JAR file path.
+	 *
+	 * @return The JAR file path.
+	 */
+	public Path getJar() {
+		return this.jar;
+	}
+
+	/**
+	 * Locates the data of the given entry if it's stored without compression.
+	 *
+	 * @param channel A channel opened on the JAR file, used to read the entry local header.
+	 * @param name    The entry name, without leading {@code /}.
+	 * @return The position and the size of the entry data in the JAR, or {@code null} if the entry isn't stored.
+	 * @throws IOException If the entry local header cannot be read.
+	 */
+	public @Nullable StoredEntry locate(FileChannel channel, String name) throws IOException {
+		StoredEntry entry = this.storedEntries.get(name);
+
+		if (entry == null || entry.dataOffset != -1) {
+			return entry;
+		}
+
+		// The data offset depends on the local header which may have a different extra field than the central directory.
+		ByteBuffer header = readFully(channel, entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+
+		if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+			throw new IOException("Invalid local header for entry \"" + name + "\" in \"" + this.jar + "\".");
+		}
+
+		int nameLength = header.getShort(26) & 0xFFFF;
+		int extraLength = header.getShort(28) & 0xFFFF;
+		entry.dataOffset = entry.localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+		return entry;
+	}
+
+	/**
+	 * Represents an entry stored without compression.
+	 */
+	public static final class StoredEntry {
+		private final long localHeaderOffset;
+		private final long size;
+		private volatile long dataOffset = -1;
+
+		private StoredEntry(long localHeaderOffset, long size) {
+			this.localHeaderOffset = localHeaderOffset;
+			this.size = size;
+		}
+
+		/**
+		 * Returns the position of the entry data in the JAR file.
+		 *
+		 * @return The position of the entry data.
+		 */
+		public long getDataOffset() {
+			return this.dataOffset;
+		}
+
+		/**
+		 * Returns the size of the entry data.
+		 *
+		 * @return The size of the entry data.
+		 */
+		public long getSize() {
+			return this.size;
+		}
+	}
+}
@@ -22,9 +22,9 @@ import net.minecraft.SharedConstants;
 import net.minecraft.resource.AbstractFileResourcePack;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.InvalidIdentifierException;
 import net.wovenmc.woven.api.resource.ModResourcePack;
 import net.wovenmc.woven.api.resource.ResourcePackActivationType;
+import net.wovenmc.woven.api.resource.ResourceQuery;
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,16 +34,23 @@ import org.jetbrains.annotations.Nullable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.DirectoryStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
@@ -56,10 +63,21 @@ import java.util.regex.Pattern;
 public class ModNioResourcePack extends AbstractFileResourcePack implements ModResourcePack {
 	private static final Logger LOGGER = LogManager.getLogger();
 	private static final Pattern NAMESPACE_PATTERN = Pattern.compile("[a-z0-9_\\-\\.]+");
+	/**
+	 * Files smaller than this are read instead of memory-mapped, mapping costs more than reading small files.
+	 */
+	private static final long MAPPING_THRESHOLD = 16 * 1024;
+	private static final AtomicLong NAMESPACE_SCANS = new AtomicLong();
+	private static final AtomicInteger RELOAD_GENERATION = new AtomicInteger();
 	private final ModMetadata modMetadata;
 	private final Path basePath;
 	private final String separator;
 	private final ResourcePackActivationType activationType;
+	private final @Nullable Path jar;
+	private final boolean directoryBacked;
+	private final Map<ResourceType, CachedNamespaces> namespaces = new ConcurrentHashMap<>();
+	private volatile ResourcePackIndex index;
+	private volatile int indexGeneration;
 
 	public ModNioResourcePack(ModMetadata modMetadata, Path path, ResourcePackActivationType activationType) {
 		super(null);
@@ -67,6 +85,9 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 		this.basePath = path;
 		this.separator = this.basePath.getFileSystem().getSeparator();
 		this.activationType = activationType;
+		this.jar = ResourcePackIndexCache.getJarPath(path);
+		// Zip or nested file systems whose JAR can't be resolved aren't directories either.
+		this.directoryBacked = path.getFileSystem() == FileSystems.getDefault();
 	}
 
 	protected @Nullable Path resolvePath(String path) {
@@ -80,6 +101,57 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 		return null;
 	}
 
+	/**
+	 * Returns the index of the files of this resource pack, builds it on first access.
+	 * Directory-backed packs build it again on first access of every reload, as their files may have changed.
+	 *
+	 * @return The index of this resource pack.
+	 */
+	public ResourcePackIndex getIndex() {
+		ResourcePackIndex index = this.index;
+		int generation = RELOAD_GENERATION.get();
+
+		if (index == null || this.isOutdated(generation)) {
+			synchronized (this) {
+				index = this.index;
+
+				if (index == null || this.isOutdated(generation)) {
+					try {
+						index = ResourcePackIndexCache.load(this.basePath);
+					} catch (IOException e) {
+						LOGGER.warn("Cannot index resource pack \"" + this.getName() + "\" from mod " + this.modMetadata.getId() + ".", e);
+						index = ResourcePackIndex.EMPTY;
+					}
+
+					this.indexGeneration = generation;
+					this.index = index;
+				}
+			}
+		}
+
+		return index;
+	}
+
+	private boolean isOutdated(int generation) {
+		return this.isDirectoryBacked() && this.indexGeneration != generation;
+	}
+
+	/**
+	 * Marks the start of a reload, directory-backed packs will index their files again.
+	 */
+	public static void onReloadStarted() {
+		RELOAD_GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Returns the generation of the current reload, which changes whenever a reload starts.
+	 *
+	 * @return The reload generation.
+	 */
+	public static int getReloadGeneration() {
+		return RELOAD_GENERATION.get();
+	}
+
 	private @Nullable InputStream openDefault(@NotNull String path) throws IOException {
 		switch (path) {
 		case "pack.mcmeta":
@@ -106,10 +178,38 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 	protected InputStream openFile(String filePath) throws IOException {
 		InputStream stream;
 
-		Path path = this.resolvePath(filePath);
+		if (ResourcePackIndex.covers(filePath)) {
+			// The index only contains normalized paths inside the pack, no need to check the path again.
+			ResourcePackIndex index = this.getIndex();
+
+			if (index.contains(filePath)) {
+				Path path = this.basePath.resolve(filePath.replace("/", this.separator));
+				Object event = ResourceEvents.begin(ResourceEvents.Type.OPEN);
+				long size = index.getSize(filePath);
+				long version = 0;
+
+				// JARs don't change while the game is running, files of directory-backed packs may change at any time.
+				if (this.directoryBacked && ResourceContentCache.isEnabled()) {
+					BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+					size = attributes.size();
+					version = attributes.lastModifiedTime().toMillis();
+				}
+
+				stream = ResourceReadThrottle.track(ResourceContentCache.open(this.basePath, filePath, version, size,
+						() -> Files.newInputStream(path)), size);
+
+				if (event != null) {
+					ResourceEvents.commitOpen(event, this.getName(), this.modMetadata.getId(), filePath, size);
+				}
+
+				return stream;
+			}
+		} else {
+			Path path = this.resolvePath(filePath);
 
-		if (path != null && Files.isRegularFile(path)) {
-			return Files.newInputStream(path);
+			if (path != null && Files.isRegularFile(path)) {
+				return Files.newInputStream(path);
+			}
 		}
 
 		stream = this.openDefault(filePath);
@@ -118,7 +218,112 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 			return stream;
 		}
 
-		throw new FileNotFoundException("\"" + filePath + "\" in Fabric mod \"" + this.modMetadata.getId() + "\"");
+		throw this.notFound(filePath);
+	}
+
+	private FileNotFoundException notFound(String filePath) {
+		return new FileNotFoundException("\"" + filePath + "\" in Fabric mod \"" + this.modMetadata.getId() + "\"");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Files of directory-backed packs and files stored without compression in JARs are memory-mapped,
+	 * compressed files are inflated directly into a direct buffer sized from the opened file.
+	 */
+	@Override
+	public ByteBuffer openBuffer(ResourceType type, Identifier id) throws IOException {
+		String filePath = getFilePath(type, id);
+		long size = this.getIndex().getSize(filePath);
+
+		if (size < 0) {
+			throw this.notFound(filePath);
+		}
+
+		Path path = this.basePath.resolve(filePath.replace("/", this.separator));
+
+		if (this.directoryBacked) {
+			if (size >= MAPPING_THRESHOLD) {
+				try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+					return channel.map(FileChannel.MapMode.READ_ONLY, 0, checkBufferSize(channel.size(), filePath));
+				}
+			}
+		} else if (this.jar != null && size >= MAPPING_THRESHOLD) {
+			try (FileChannel channel = FileChannel.open(this.jar, StandardOpenOption.READ)) {
+				JarEntryLocator.StoredEntry entry = JarEntryLocator.get(this.jar).locate(channel, getEntryName(path));
+
+				if (entry != null) {
+					return channel.map(FileChannel.MapMode.READ_ONLY, entry.getDataOffset(), checkBufferSize(entry.getSize(), filePath));
+				}
+			}
+		}
+
+		// Small or compressed files: read them directly into a direct buffer, without intermediate heap arrays.
+		// The indexed size may be outdated, size the buffer from the opened file.
+		try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = ResourceReadThrottle.allocateDirect(checkBufferSize(channel.size(), filePath));
+
+			while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+				// Keep reading until the buffer is full.
+			}
+
+			buffer.flip();
+			return buffer.asReadOnlyBuffer();
+		}
+	}
+
+	private static int checkBufferSize(long size, String filePath) throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("\"" + filePath + "\" is too large to be buffered (" + size + " bytes).");
+		}
+
+		return (int) size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Files of directory-backed packs and files stored without compression in JARs are streamed with positional reads,
+	 * compressed files have to be inflated in memory first.
+	 */
+	@Override
+	public SeekableByteChannel openChannel(ResourceType type, Identifier id) throws IOException {
+		String filePath = getFilePath(type, id);
+
+		if (!this.getIndex().contains(filePath)) {
+			throw this.notFound(filePath);
+		}
+
+		Path path = this.basePath.resolve(filePath.replace("/", this.separator));
+
+		if (this.jar == null) {
+			return Files.newByteChannel(path, StandardOpenOption.READ);
+		}
+
+		FileChannel channel = FileChannel.open(this.jar, StandardOpenOption.READ);
+
+		try {
+			JarEntryLocator.StoredEntry entry = JarEntryLocator.get(this.jar).locate(channel, getEntryName(path));
+
+			if (entry != null) {
+				return new FileChannelSlice(channel, entry.getDataOffset(), entry.getSize());
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+
+		channel.close();
+		return new ByteBufferChannel(this.openBuffer(type, id));
+	}
+
+	private static String getFilePath(ResourceType type, Identifier id) {
+		return String.format("%s/%s/%s", type.getDirectory(), id.getNamespace(), id.getPath());
+	}
+
+	private static String getEntryName(Path path) {
+		String name = path.toString();
+		return name.startsWith("/") ? name.substring(1) : name;
 	}
 
 	/**
@@ -146,79 +351,106 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 			return true;
 		}
 
+		if (ResourcePackIndex.covers(filePath)) {
+			return this.getIndex().contains(filePath);
+		}
+
 		Path path = this.resolvePath(filePath);
 		return path != null && Files.isRegularFile(path);
 	}
 
 	@Override
 	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter) {
-		List<Identifier> identifiers = new ArrayList<>();
-		String prefixPath = prefix.replace("/", this.separator);
-
-		Path namespacePath = this.resolvePath(type.getDirectory() + this.separator + namespace);
-
-		if (namespacePath != null) {
-			Path searchPath = namespacePath.resolve(prefixPath).toAbsolutePath().normalize();
-
-			if (Files.exists(searchPath)) {
-				try {
-					Files.walk(searchPath, maxDepth)
-							.filter(Files::isRegularFile)
-							.filter(path -> {
-								String fileName = path.getFileName().toString();
-								return !fileName.endsWith(".mcmeta") && pathFilter.test(fileName);
-							})
-							.map(namespacePath::relativize)
-							.map(path -> path.toString().replace(separator, "/"))
-							.forEach(path -> {
-								try {
-									identifiers.add(new Identifier(namespace, path));
-								} catch (InvalidIdentifierException e) {
-									LOGGER.warn(e.getMessage());
-								}
-							});
-				} catch (IOException e) {
-					LOGGER.warn(
-							String.format("Cannot find resources at \"%s\" in namespace \"%s\", resource pack \"%s\" from mod %s!",
-									prefix, namespace, this.getName(), this.modMetadata.getId()),
-							e
-					);
-				}
-			}
+		Object event = ResourceEvents.begin(ResourceEvents.Type.SCAN);
+		Collection<Identifier> resources = this.getIndex().findResources(type, namespace, prefix, maxDepth, pathFilter);
+
+		// Only describe the scan if it is recorded, this is the hottest lookup path.
+		if (event != null) {
+			ResourceEvents.commitScan(event, this.getName(), this.modMetadata.getId(), "findResources",
+					type.getDirectory() + "/" + namespace + "/" + prefix, resources.size());
+		}
+
+		return resources;
+	}
+
+	@Override
+	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, ResourceQuery query) {
+		Object event = ResourceEvents.begin(ResourceEvents.Type.SCAN);
+		Collection<Identifier> resources = this.getIndex().findResources(type, namespace, prefix, query);
+
+		if (event != null) {
+			ResourceEvents.commitScan(event, this.getName(), this.modMetadata.getId(), "findResources",
+					type.getDirectory() + "/" + namespace + "/" + prefix + " " + query, resources.size());
 		}
 
-		return identifiers;
+		return resources;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Namespaces are computed once per resource type and index, and cached as an immutable set.
+	 * Directory-backed packs index their files again on every reload, so any change made on disk is picked up,
+	 * JAR-backed packs never change while the game is running.
+	 */
 	@Override
 	public Set<String> getNamespaces(ResourceType type) {
-		Path typePath = this.resolvePath(type.getDirectory());
+		ResourcePackIndex index = this.getIndex();
+		CachedNamespaces cached = this.namespaces.get(type);
 
-		if (typePath == null || !(Files.isDirectory(typePath))) {
-			return Collections.emptySet();
+		if (cached != null && cached.index == index) {
+			return cached.namespaces;
 		}
 
-		try (DirectoryStream<Path> stream = Files.newDirectoryStream(typePath, Files::isDirectory)) {
-			Set<String> namespaces = new HashSet<>();
+		Object event = ResourceEvents.begin(ResourceEvents.Type.SCAN);
+		cached = new CachedNamespaces(index, this.scanNamespaces(type, index));
+		ResourceEvents.commitScan(event, this.getName(), this.modMetadata.getId(), "getNamespaces", type.getDirectory(), cached.namespaces.size());
+		this.namespaces.put(type, cached);
+		return cached.namespaces;
+	}
 
-			for (Path path : stream) {
-				String name = path.getFileName().toString();
-				// name may contain trailing slashes, remove them.
-				name = name.replace(this.separator, "");
+	private Set<String> scanNamespaces(ResourceType type, ResourcePackIndex index) {
+		NAMESPACE_SCANS.incrementAndGet();
+		Set<String> namespaces = new HashSet<>();
 
-				if (NAMESPACE_PATTERN.matcher(name).matches()) {
-					namespaces.add(name);
-				} else {
-					LOGGER.warn("Invalid namespace \"{}\" in resource pack \"{}\" from mod {}.",
-							name, this.getName(), this.modMetadata.getId());
-				}
+		for (String name : index.getNamespaces(type)) {
+			if (NAMESPACE_PATTERN.matcher(name).matches()) {
+				namespaces.add(name);
+			} else {
+				LOGGER.warn("Invalid namespace \"{}\" in resource pack \"{}\" from mod {}.",
+						name, this.getName(), this.modMetadata.getId());
 			}
-
-			return namespaces;
-		} catch (IOException e) {
-			LOGGER.warn("Cannot get namespaces from mod " + this.modMetadata.getId() + " in resource pack \"" + this.getName() + "\".", e);
-			return Collections.emptySet();
 		}
+
+		return Collections.unmodifiableSet(namespaces);
+	}
+
+	/**
+	 * Invalidates the index and the cached namespaces of this resource pack, they will be computed again on next access.
+	 */
+	public void invalidate() {
+		this.index = null;
+		this.namespaces.clear();
+	}
+
+	/**
+	 * Returns whether this resource pack is backed by a directory, whose content may change at any time.
+	 *
+	 * @return True if this resource pack is backed by a directory, else false.
+	 */
+	public boolean isDirectoryBacked() {
+		return this.directoryBacked;
+	}
+
+	/**
+	 * Returns how many times namespaces have been scanned from a mod resource pack index since startup.
+	 * <p>
+	 * As namespaces are cached, this should grow with the amount of mods and not with the amount of reloads.
+	 *
+	 * @return The amount of namespace scans.
+	 */
+	public static long getNamespaceScanCount() {
+		return NAMESPACE_SCANS.get();
 	}
 
 	@Override
@@ -243,4 +475,14 @@ public class ModNioResourcePack extends AbstractFileResourcePack implements ModR
 	public ResourcePackActivationType getActivationType() {
 		return this.activationType;
 	}
+
+	private static final class CachedNamespaces {
+		private final ResourcePackIndex index;
+		private final Set<String> namespaces;
+
+		private CachedNamespaces(ResourcePackIndex index, Set<String> namespaces) {
+			this.index = index;
+			this.namespaces = namespaces;
+		}
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourcePackProfile;
+import net.minecraft.resource.ResourceType;
+import net.wovenmc.woven.api.resource.ModResourcePack;
+import net.wovenmc.woven.api.resource.ResourcePackActivationType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the cheap metadata of a mod resource pack, attached to its profile when the profile is created.
+ * <p>
+ * This allows enable/disable decisions to be made without creating the resource pack from the profile.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ModResourcePackInfo {
+	private final String name;
+	private final String modId;
+	private final ResourcePackActivationType activationType;
+	private final Map<ResourceType, Set<String>> namespaces;
+
+	private ModResourcePackInfo(String name, String modId, ResourcePackActivationType activationType, Map<ResourceType, Set<String>> namespaces) {
+		this.name = name;
+		this.modId = modId;
+		this.activationType = activationType;
+		this.namespaces = namespaces;
+	}
+
+	/**
+	 * Attaches the metadata of the given resource pack to the given profile.
+	 *
+	 * @param profile The profile of the resource pack, may be null if the profile creation failed.
+	 * @param pack    The resource pack.
+	 * @return The profile.
+	 */
+	public static @Nullable ResourcePackProfile attach(@Nullable ResourcePackProfile profile, ModResourcePack pack) {
+		if (profile != null) {
+			Map<ResourceType, Set<String>> namespaces = new EnumMap<>(ResourceType.class);
+
+			for (ResourceType type : ResourceType.values()) {
+				namespaces.put(type, pack.getNamespaces(type));
+			}
+
+			((Holder) profile).woven$setModResourcePackInfo(new ModResourcePackInfo(pack.getName(), pack.getModMetadata().getId(),
+					pack.getActivationType(), Collections.unmodifiableMap(namespaces)));
+		}
+
+		return profile;
+	}
+
+	/**
+	 * Returns the metadata of the mod resource pack of the given profile.
+	 *
+	 * @param profile The profile.
+	 * @return The metadata, or {@code null} if the profile isn't a mod resource pack profile.
+	 */
+	public static @Nullable ModResourcePackInfo of(ResourcePackProfile profile) {
+		return ((Holder) profile).woven$getModResourcePackInfo();
+	}
+
+	/**
+	 * Returns the name of the resource pack.
+	 *
+	 * @return The name of the resource pack.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns the identifier of the mod providing the resource pack.
+	 *
+	 * @return The mod identifier.
+	 */
+	public String getModId() {
+		return this.modId;
+	}
+
+	/**
+	 * Returns the activation type of the resource pack.
+	 *
+	 * @return The activation type.
+	 */
+	public ResourcePackActivationType getActivationType() {
+		return this.activationType;
+	}
+
+	/**
+	 * Returns the namespaces of the resource pack for the given resource type.
+	 *
+	 * @param type The resource type.
+	 * @return The namespaces.
+	 */
+	public Set<String> getNamespaces(ResourceType type) {
+		return this.namespaces.get(type);
+	}
+
+	/**
+	 * Represents a resource pack profile which can hold mod resource pack metadata, implemented by mixin.
+	 */
+	public interface Holder {
+		@Nullable ModResourcePackInfo woven$getModResourcePackInfo();
+
+		void woven$setModResourcePackInfo(ModResourcePackInfo info);
+	}
+}
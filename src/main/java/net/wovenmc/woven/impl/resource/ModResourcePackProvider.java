@@ -24,7 +24,11 @@ import net.minecraft.text.TranslatableText;
 import net.wovenmc.woven.api.resource.ModResourcePack;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -33,14 +37,50 @@ import java.util.function.Consumer;
 public class ModResourcePackProvider implements ResourcePackProvider {
 	public static final ResourcePackSource RESOURCE_PACK_SOURCE = text -> new TranslatableText("pack.nameAndSource", text, new TranslatableText("pack.source.woven"));
 	public static final ModResourcePackProvider CLIENT_RESOURCE_PACK_PROVIDER = new ModResourcePackProvider(ResourceType.CLIENT_RESOURCES);
+	/**
+	 * The memoized profiles, per profile factory then per resource type, as profiles are created by the factory.
+	 */
+	private static final Map<ResourcePackProfile.Factory, Map<ResourceType, List<ResourcePackProfile>>> PROFILES =
+			Collections.synchronizedMap(new WeakHashMap<>());
 	private final ResourceType type;
 
 	public ModResourcePackProvider(ResourceType type) {
 		this.type = type;
 	}
 
+	/**
+	 * Invalidates the memoized resource pack profiles, they will be created again on next scan.
+	 */
+	public static void invalidateCache() {
+		PROFILES.clear();
+	}
+
 	@Override
 	public void register(Consumer<ResourcePackProfile> consumer, ResourcePackProfile.Factory factory) {
+		// Scans happen on every pack screen opening and reload, reuse the profiles created by previous scans.
+		Map<ResourceType, List<ResourcePackProfile>> cache = PROFILES.computeIfAbsent(factory, f -> new ConcurrentHashMap<>());
+		List<ResourcePackProfile> profiles = cache.get(this.type);
+
+		if (profiles == null) {
+			profiles = new ArrayList<>();
+			boolean reusable = this.createProfiles(profiles::add, factory);
+
+			if (reusable) {
+				cache.put(this.type, profiles);
+			}
+		}
+
+		profiles.forEach(consumer);
+	}
+
+	/**
+	 * Creates the profiles of the mod resource packs.
+	 *
+	 * @param consumer The profile consumer.
+	 * @param factory  The profile factory.
+	 * @return True if the profiles can be reused by later scans, false if any resource pack is backed by a directory.
+	 */
+	private boolean createProfiles(Consumer<ResourcePackProfile> consumer, ResourcePackProfile.Factory factory) {
 		/*
 			Register order rule in this provider:
 			1. Mod resource packs
@@ -57,14 +97,28 @@ public class ModResourcePackProvider implements ResourcePackProvider {
 		// Build a list of mod resource packs.
 		List<ModResourcePack> packs = new ArrayList<>();
 		ResourceLoaderImpl.appendModResourcePacks(packs, this.type, null);
+		boolean reusable = !ResourceLoaderImpl.INSTANCE.hasDirectoryBackedBuiltinResourcePacks();
+
+		for (ModResourcePack pack : packs) {
+			if (pack instanceof ModNioResourcePack && ((ModNioResourcePack) pack).isDirectoryBacked()) {
+				reusable = false;
+			}
+		}
+
+		if (ResourceLoaderConfig.COMPOSITE_PACKS && packs.size() > 1) {
+			// Merge every mod resource pack into a single pack, resource lookups then don't depend on the amount of mods.
+			CompositeModResourcePack composite = new CompositeModResourcePack(this.type, packs);
+			packs.clear();
+			packs.add(composite);
+		}
 
 		for (ModResourcePack pack : packs) {
 			// Make the resource pack profile for mod resource packs.
 			// Mod resource packs must always be enabled to avoid issues
 			// and inserted on top to ensure that they are applied before user resource packs and after default/programmer art resource pack.
-			ResourcePackProfile resourcePackProfile = ResourcePackProfile.of("woven/" + pack.getModMetadata().getId(),
+			ResourcePackProfile resourcePackProfile = ModResourcePackInfo.attach(ResourcePackProfile.of(getProfileName(pack),
 					true, () -> pack, factory, ResourcePackProfile.InsertionPosition.TOP,
-					RESOURCE_PACK_SOURCE);
+					RESOURCE_PACK_SOURCE), pack);
 
 			if (resourcePackProfile != null) {
 				consumer.accept(resourcePackProfile);
@@ -73,5 +127,14 @@ public class ModResourcePackProvider implements ResourcePackProvider {
 
 		// Register all built-in resource packs provided by mods.
 		ResourceLoaderImpl.INSTANCE.registerBuiltinResourcePacks(this.type, consumer, factory);
+		return reusable;
+	}
+
+	private static String getProfileName(ModResourcePack pack) {
+		if (pack instanceof CompositeModResourcePack) {
+			return "woven/mods";
+		}
+
+		return "woven/" + pack.getModMetadata().getId();
 	}
 }
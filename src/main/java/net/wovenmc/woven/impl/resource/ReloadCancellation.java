@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ResourceReloadPhase;
+import net.wovenmc.woven.api.resource.ResourceReloadToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the reloads of each resource type and cancels a reload once a newer one of the same type starts.
+ * <p>
+ * Every listener of a reload is wrapped to bind the token of the reload to the thread during its reload call
+ * and during the tasks it submits to the reload executors. Its prepare tasks are also throttled by the {@link ResourceReadThrottle}.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see ResourceReloadToken
+ */
+public final class ReloadCancellation {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final ResourceReloadToken NONE = () -> false;
+	private static final ThreadLocal<ResourceReloadToken> CURRENT = new ThreadLocal<>();
+	private static final Map<ResourceType, Token> LATEST = new ConcurrentHashMap<>();
+
+	private ReloadCancellation() {
+		throw new UnsupportedOperationException("ReloadCancellation only contains static definitions.");
+	}
+
+	/**
+	 * Returns the token bound to the current thread.
+	 *
+	 * @return The token, or a token never cancelled if none is bound.
+	 */
+	public static ResourceReloadToken current() {
+		ResourceReloadToken token = CURRENT.get();
+		return token != null ? token : NONE;
+	}
+
+	/**
+	 * Starts tracking a reload, cancelling the previous reload of the same resource type if reloads are superseded.
+	 *
+	 * @param type      The resource type of the reload.
+	 * @param listeners The listeners of the reload.
+	 * @return The listeners, bound to the token of the reload.
+	 */
+	public static List<ResourceReloadListener> begin(ResourceType type, List<ResourceReloadListener> listeners) {
+		Token token = new Token();
+
+		if (ResourceLoaderConfig.SUPERSEDE_RELOADS) {
+			Token previous = LATEST.put(type, token);
+
+			if (previous != null && previous.cancel()) {
+				LOGGER.info("Cancelling the previous {} reload, superseded by a new reload.", type.getDirectory());
+			}
+		}
+
+		List<ResourceReloadListener> bound = new ArrayList<>(listeners.size());
+
+		for (ResourceReloadListener listener : listeners) {
+			if (listener instanceof IdentifiableResourceReloadListener) {
+				bound.add(new BoundListener.Identifiable((IdentifiableResourceReloadListener) listener, token));
+			} else {
+				bound.add(new BoundListener(listener, token));
+			}
+		}
+
+		return bound;
+	}
+
+	/**
+	 * Runs a task with the given token bound to the current thread.
+	 *
+	 * @param token The token.
+	 * @param task  The task.
+	 */
+	public static void run(ResourceReloadToken token, Runnable task) {
+		ResourceReloadToken previous = CURRENT.get();
+		CURRENT.set(token);
+
+		try {
+			task.run();
+		} finally {
+			if (previous != null) {
+				CURRENT.set(previous);
+			} else {
+				CURRENT.remove();
+			}
+		}
+	}
+
+	/**
+	 * Wraps an executor to bind the given token to the thread running each task.
+	 *
+	 * @param token    The token.
+	 * @param executor The executor.
+	 * @return The wrapped executor.
+	 */
+	public static Executor bind(ResourceReloadToken token, Executor executor) {
+		return bind(token, executor, false);
+	}
+
+	private static Executor bind(ResourceReloadToken token, Executor executor, boolean prepare) {
+		if (prepare) {
+			// Prepare tasks run on the worker pool, throttle their reads instead of having them all read at once.
+			return task -> executor.execute(() -> run(token, () -> ResourceReadThrottle.runBackpressured(task)));
+		}
+
+		return task -> executor.execute(() -> run(token, task));
+	}
+
+	/**
+	 * Represents the token of a reload, with the amount of its listeners still running.
+	 */
+	private static final class Token implements ResourceReloadToken {
+		private final AtomicInteger running = new AtomicInteger();
+		private volatile boolean cancelled;
+
+		@Override
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+
+		/**
+		 * Cancels this token.
+		 *
+		 * @return True if listeners of the reload were still running, else false.
+		 */
+		private boolean cancel() {
+			this.cancelled = true;
+			return this.running.get() > 0;
+		}
+	}
+
+	/**
+	 * Represents a listener bound to the token of its reload.
+	 */
+	private static class BoundListener implements ResourceReloadListener {
+		private final ResourceReloadListener delegate;
+		private final Token token;
+
+		private BoundListener(ResourceReloadListener delegate, Token token) {
+			this.delegate = delegate;
+			this.token = token;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+				Executor prepareExecutor, Executor applyExecutor) {
+			CompletableFuture<Void>[] future = new CompletableFuture[1];
+			this.token.running.incrementAndGet();
+
+			try {
+				run(this.token, () -> future[0] = this.delegate.reload(synchronizer, manager, prepareProfiler, applyProfiler,
+						bind(this.token, prepareExecutor, true), bind(this.token, applyExecutor, false)));
+			} catch (RuntimeException e) {
+				this.token.running.decrementAndGet();
+				throw e;
+			}
+
+			return future[0].whenComplete((unused, throwable) -> this.token.running.decrementAndGet());
+		}
+
+		@Override
+		public String getName() {
+			return this.delegate.getName();
+		}
+
+		/**
+		 * Represents a bound identifiable listener, keeping its identifier, dependencies and phase.
+		 */
+		private static final class Identifiable extends BoundListener implements IdentifiableResourceReloadListener {
+			private final IdentifiableResourceReloadListener delegate;
+
+			private Identifiable(IdentifiableResourceReloadListener delegate, Token token) {
+				super(delegate, token);
+				this.delegate = delegate;
+			}
+
+			@Override
+			public Identifier getIdentifier() {
+				return this.delegate.getIdentifier();
+			}
+
+			@Override
+			public Collection<Identifier> getDependencies() {
+				return this.delegate.getDependencies();
+			}
+
+			@Override
+			public ResourceReloadPhase getPhase() {
+				return this.delegate.getPhase();
+			}
+		}
+	}
+}
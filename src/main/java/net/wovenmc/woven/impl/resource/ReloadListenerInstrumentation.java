@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceReloadListener;
+import net.minecraft.resource.ResourceReloadMonitor;
+import net.minecraft.resource.ResourceType;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ReloadListenerStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the instrumentation of the listeners of a reload, measuring the cost of each listener
+ * and emitting the reload phase events.
+ * <p>
+ * The statistics are published once the reload completes, or fails, with the measures of the listeners
+ * which ran so far. If deferred listeners are still running, they are published again once those are done.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ReloadListenerInstrumentation {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int SUMMARY_SIZE = 5;
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private static final @Nullable com.sun.management.ThreadMXBean ALLOCATIONS = getAllocationBean();
+	// Hands the instrumentation over from the sorting of the listeners to the start of the reload, on the same thread.
+	private static final ThreadLocal<ReloadListenerInstrumentation> STARTING = new ThreadLocal<>();
+	private final ResourceType type;
+	private final @Nullable Consumer<List<ReloadListenerStats>> callback;
+	private final List<Recorder> recorders = new ArrayList<>();
+	private final AtomicInteger deferredPending = new AtomicInteger();
+	private final AtomicBoolean completed = new AtomicBoolean();
+	private final long start = System.nanoTime();
+	private volatile boolean reloadCompleted;
+
+	private ReloadListenerInstrumentation(ResourceType type, @Nullable Consumer<List<ReloadListenerStats>> callback) {
+		this.type = type;
+		this.callback = callback;
+	}
+
+	private static @Nullable com.sun.management.ThreadMXBean getAllocationBean() {
+		try {
+			if (THREADS instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+
+				if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+					return bean;
+				}
+			}
+		} catch (LinkageError e) {
+			// Not a HotSpot-based JVM.
+		}
+
+		return null;
+	}
+
+	/**
+	 * Instruments the listeners of a reload.
+	 *
+	 * @param type      The resource type of the reload.
+	 * @param listeners The listeners of the reload.
+	 * @param callback  The callback receiving the statistics once the reload completes, from the most to the least expensive,
+	 *                  or {@code null} to only emit the reload phase events.
+	 * @return The instrumented listeners.
+	 */
+	public static List<ResourceReloadListener> instrument(ResourceType type, List<ResourceReloadListener> listeners,
+			@Nullable Consumer<List<ReloadListenerStats>> callback) {
+		ReloadListenerInstrumentation instrumentation = new ReloadListenerInstrumentation(type, callback);
+		List<ResourceReloadListener> instrumented = new ArrayList<>(listeners.size());
+
+		for (ResourceReloadListener listener : listeners) {
+			if (listener instanceof DependencyReloadListenerGroup) {
+				// Instrument the members, the group itself only schedules them.
+				List<IdentifiableResourceReloadListener> members = ((DependencyReloadListenerGroup) listener).getListeners().stream()
+						.map(member -> (IdentifiableResourceReloadListener) instrumentation.wrap(member, false))
+						.collect(Collectors.toList());
+				instrumented.add(new DependencyReloadListenerGroup(members));
+			} else if (listener instanceof DeferredReloadListenerGroup) {
+				// The deferred members outlive the reload, the statistics are published again once they are done.
+				List<IdentifiableResourceReloadListener> members = ((DeferredReloadListenerGroup) listener).getListeners().stream()
+						.map(member -> (IdentifiableResourceReloadListener) instrumentation.wrap(member, true))
+						.collect(Collectors.toList());
+				instrumented.add(new DeferredReloadListenerGroup(members));
+			} else {
+				instrumented.add(instrumentation.wrap(listener, false));
+			}
+		}
+
+		if (callback != null) {
+			STARTING.set(instrumentation);
+		}
+
+		return instrumented;
+	}
+
+	/**
+	 * Publishes the statistics of the listeners instrumented on the current thread once the given reload completes.
+	 *
+	 * @param monitor The started reload.
+	 */
+	public static void onReloadStarted(ResourceReloadMonitor monitor) {
+		ReloadListenerInstrumentation instrumentation = STARTING.get();
+
+		if (instrumentation != null) {
+			STARTING.remove();
+			monitor.whenComplete().whenComplete((unit, throwable) -> instrumentation.onReloadCompleted(throwable));
+		}
+	}
+
+	private ResourceReloadListener wrap(ResourceReloadListener listener, boolean deferred) {
+		Recorder recorder = new Recorder(listener, deferred);
+		this.recorders.add(recorder);
+
+		if (deferred) {
+			this.deferredPending.incrementAndGet();
+		}
+
+		if (listener instanceof IdentifiableResourceReloadListener) {
+			return new InstrumentedReloadListener.Identifiable((IdentifiableResourceReloadListener) listener, recorder);
+		}
+
+		return new InstrumentedReloadListener(listener, recorder);
+	}
+
+	private void onReloadCompleted(@Nullable Throwable throwable) {
+		this.reloadCompleted = true;
+
+		if (throwable == null && this.deferredPending.get() > 0) {
+			// Publish the reload right away, the deferred listeners refresh the statistics once done.
+			this.publish();
+		} else {
+			this.complete(throwable != null);
+		}
+	}
+
+	private void onDeferredCompleted() {
+		if (this.deferredPending.decrementAndGet() == 0 && this.reloadCompleted) {
+			this.complete(false);
+		}
+	}
+
+	private void complete(boolean failed) {
+		if (this.callback == null || !this.completed.compareAndSet(false, true)) {
+			return;
+		}
+
+		List<ReloadListenerStats> stats = this.publish();
+		LOGGER.info("{} {} {} listeners in {} ms, most expensive: {}.", failed ? "Failed reloading" : "Reloaded", stats.size(),
+				this.type.getDirectory(), (System.nanoTime() - this.start) / 1_000_000, stats.stream().limit(SUMMARY_SIZE)
+						.map(ReloadListenerInstrumentation::describe)
+						.collect(Collectors.joining(", ")));
+	}
+
+	private List<ReloadListenerStats> publish() {
+		List<ReloadListenerStats> stats = Collections.unmodifiableList(this.recorders.stream()
+				.map(Recorder::toStats)
+				.sorted(Comparator.comparingLong(ReloadListenerStats::getTotalNanos).reversed())
+				.collect(Collectors.toList()));
+
+		if (this.callback != null) {
+			this.callback.accept(stats);
+		}
+
+		return stats;
+	}
+
+	private static String describe(ReloadListenerStats stats) {
+		String name = stats.getIdentifier() != null ? stats.getIdentifier().toString() : stats.getName();
+		String description = String.format("%s %d ms (prepare %d ms, apply %d ms", name, stats.getTotalNanos() / 1_000_000,
+				stats.getPrepareNanos() / 1_000_000, stats.getApplyNanos() / 1_000_000);
+
+		if (stats.getCpuNanos() >= 0) {
+			description += String.format(", cpu %d ms", stats.getCpuNanos() / 1_000_000);
+		}
+
+		if (stats.getAllocatedBytes() >= 0) {
+			description += String.format(", %d MiB allocated", stats.getAllocatedBytes() / (1024 * 1024));
+		}
+
+		return description + ")";
+	}
+
+	/**
+	 * Represents the measures of a listener, accumulated over every task it runs.
+	 */
+	final class Recorder {
+		private final ResourceReloadListener listener;
+		private final boolean deferred;
+		private final LongAdder prepareNanos = new LongAdder();
+		private final LongAdder applyNanos = new LongAdder();
+		private final LongAdder cpuNanos = new LongAdder();
+		private final LongAdder allocatedBytes = new LongAdder();
+
+		private Recorder(ResourceReloadListener listener, boolean deferred) {
+			this.listener = listener;
+			this.deferred = deferred;
+		}
+
+		/**
+		 * Runs the given task and records its cost.
+		 *
+		 * @param task    The task.
+		 * @param prepare True if the task belongs to the prepare stage, false if it belongs to the apply stage.
+		 */
+		void measure(Runnable task, boolean prepare) {
+			long threadId = Thread.currentThread().getId();
+			long cpu = CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+			long allocated = ALLOCATIONS != null ? ALLOCATIONS.getThreadAllocatedBytes(threadId) : 0;
+			long start = System.nanoTime();
+			Object event = ResourceEvents.begin(ResourceEvents.Type.RELOAD_PHASE);
+
+			try {
+				task.run();
+			} finally {
+				ResourceEvents.commitReloadPhase(event, this.listener.getName(), prepare ? "prepare" : "apply", ReloadListenerInstrumentation.this.type.getDirectory());
+				(prepare ? this.prepareNanos : this.applyNanos).add(System.nanoTime() - start);
+
+				if (CPU_TIME) {
+					this.cpuNanos.add(THREADS.getCurrentThreadCpuTime() - cpu);
+				}
+
+				if (ALLOCATIONS != null) {
+					this.allocatedBytes.add(ALLOCATIONS.getThreadAllocatedBytes(threadId) - allocated);
+				}
+			}
+		}
+
+		void complete() {
+			if (this.deferred) {
+				ReloadListenerInstrumentation.this.onDeferredCompleted();
+			}
+		}
+
+		private ReloadListenerStats toStats() {
+			return new ReloadListenerStats(this.listener.getName(),
+					this.listener instanceof IdentifiableResourceReloadListener ? ((IdentifiableResourceReloadListener) this.listener).getIdentifier() : null,
+					this.prepareNanos.sum(), this.applyNanos.sum(),
+					CPU_TIME ? this.cpuNanos.sum() : -1, ALLOCATIONS != null ? this.allocatedBytes.sum() : -1);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.apache.commons.io.IOUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * Represents the content cache of small resource files, shared by mod resource packs and the default resource pack.
+ * <p>
+ * The same files are often read by several reload listeners, and again on every reload,
+ * cached files are served from memory instead of being read and inflated again.
+ * Entries are keyed on the version and size of the file, so an edited file is read again and its stale entry
+ * is evicted in time. The cache is bounded in bytes with a least recently used eviction, and disabled by default.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceContentCache {
+	private static final long CAPACITY = ResourceLoaderConfig.CONTENT_CACHE_SIZE;
+	/**
+	 * Files bigger than this are always streamed, caching them would evict many small files.
+	 */
+	private static final long MAX_ENTRY_SIZE = CAPACITY / 16;
+	private static final @Nullable Cache<Key, byte[]> CACHE = CAPACITY <= 0 ? null : CacheBuilder.newBuilder()
+			.maximumWeight(CAPACITY)
+			.weigher((Key key, byte[] content) -> content.length)
+			.recordStats()
+			.build();
+
+	private ResourceContentCache() {
+		throw new UnsupportedOperationException("ResourceContentCache only contains static definitions.");
+	}
+
+	/**
+	 * Opens the given file from the cache, or with the given opener and caches its content.
+	 *
+	 * @param root    The root of the resource pack containing the file, like its base path.
+	 * @param path    The path of the file relative to the root.
+	 * @param version The version of the file, like its modification time, a changed version is a cache miss.
+	 * @param size    The size of the file, or {@code -1} if unknown, a changed size is also a cache miss.
+	 * @param opener  The opener of the file.
+	 * @return The file content.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	public static InputStream open(Object root, String path, long version, long size, Opener opener) throws IOException {
+		if (CACHE == null || size < 0 || size > MAX_ENTRY_SIZE) {
+			return opener.open();
+		}
+
+		Key key = new Key(root, path, version, size);
+		byte[] content = CACHE.getIfPresent(key);
+
+		if (content == null) {
+			try (InputStream stream = opener.open()) {
+				content = IOUtils.toByteArray(stream);
+			}
+
+			CACHE.put(key, content);
+		}
+
+		return new ByteArrayInputStream(content);
+	}
+
+	/**
+	 * Returns whether the content cache is enabled.
+	 *
+	 * @return True if the content cache is enabled, else false.
+	 */
+	public static boolean isEnabled() {
+		return CACHE != null;
+	}
+
+	/**
+	 * Returns the statistics of the content cache, like its hit rate.
+	 *
+	 * @return The statistics, empty if the content cache is disabled.
+	 */
+	public static CacheStats getStats() {
+		return CACHE == null ? new CacheStats(0, 0, 0, 0, 0, 0) : CACHE.stats();
+	}
+
+	/**
+	 * Returns the amount of cached files.
+	 *
+	 * @return The amount of cached files.
+	 */
+	public static long getEntryCount() {
+		return CACHE == null ? 0 : CACHE.size();
+	}
+
+	/**
+	 * Represents an opener of a file which may fail.
+	 */
+	@FunctionalInterface
+	public interface Opener {
+		InputStream open() throws IOException;
+	}
+
+	private static final class Key {
+		private final Object root;
+		private final String path;
+		private final long version;
+		private final long size;
+		private final int hashCode;
+
+		private Key(Object root, String path, long version, long size) {
+			this.root = root;
+			this.path = path;
+			this.version = version;
+			this.size = size;
+			this.hashCode = Objects.hash(root, path, version, size);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return this.version == key.version && this.size == key.size && this.root.equals(key.root) && this.path.equals(key.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+}
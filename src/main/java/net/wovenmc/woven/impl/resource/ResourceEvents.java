@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Emits the resource loader Java Flight Recorder events.
+ * <p>
+ * JFR isn't available on every supported Java version, the events are only loaded if it is.
+ * Every method is a no-op returning immediately when JFR is unavailable or when the event isn't recorded:
+ * {@link #begin(Type)} then returns {@code null}, and committing a {@code null} event does nothing.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceEvents {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final @Nullable Sink SINK = createSink();
+
+	private ResourceEvents() {
+		throw new UnsupportedOperationException("ResourceEvents only contains static definitions.");
+	}
+
+	private static @Nullable Sink createSink() {
+		if (!ResourceLoaderConfig.JFR_EVENTS) {
+			return null;
+		}
+
+		try {
+			Class.forName("jdk.jfr.FlightRecorder", false, ResourceEvents.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			// Java Flight Recorder isn't available on this JVM.
+			return null;
+		}
+
+		try {
+			return (Sink) Class.forName("net.wovenmc.woven.impl.resource.jfr.JfrResourceEventSink").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			LOGGER.warn("Cannot register the resource loader JFR events.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether the given event is currently recorded.
+	 *
+	 * @param type The event type.
+	 * @return True if the event is recorded, else false.
+	 */
+	public static boolean isEnabled(Type type) {
+		return SINK != null && SINK.isEnabled(type);
+	}
+
+	/**
+	 * Begins an event, its duration starts now.
+	 *
+	 * @param type The event type.
+	 * @return The event, or {@code null} if the event isn't recorded.
+	 */
+	public static @Nullable Object begin(Type type) {
+		return SINK == null ? null : SINK.begin(type);
+	}
+
+	/**
+	 * Commits a resource open event.
+	 *
+	 * @param event The event returned by {@link #begin(Type)}.
+	 * @param pack  The name of the resource pack.
+	 * @param modId The identifier of the mod providing the resource pack.
+	 * @param path  The path of the resource in the resource pack.
+	 * @param bytes The size of the resource, or {@code -1} if unknown.
+	 */
+	public static void commitOpen(@Nullable Object event, String pack, String modId, String path, long bytes) {
+		if (event != null) {
+			SINK.commitOpen(event, pack, modId, path, bytes);
+		}
+	}
+
+	/**
+	 * Commits a resource scan event.
+	 *
+	 * @param event     The event returned by {@link #begin(Type)}.
+	 * @param pack      The name of the resource pack.
+	 * @param modId     The identifier of the mod providing the resource pack.
+	 * @param operation The scan operation, like {@code findResources}.
+	 * @param target    What is scanned, like a directory.
+	 * @param results   The amount of results.
+	 */
+	public static void commitScan(@Nullable Object event, String pack, String modId, String operation, String target, int results) {
+		if (event != null) {
+			SINK.commitScan(event, pack, modId, operation, target, results);
+		}
+	}
+
+	/**
+	 * Commits a reload listener phase event.
+	 *
+	 * @param event        The event returned by {@link #begin(Type)}.
+	 * @param listener     The name of the listener.
+	 * @param phase        The phase, either {@code prepare} or {@code apply}.
+	 * @param resourceType The resource type of the reload.
+	 */
+	public static void commitReloadPhase(@Nullable Object event, String listener, String phase, String resourceType) {
+		if (event != null) {
+			SINK.commitReloadPhase(event, listener, phase, resourceType);
+		}
+	}
+
+	/**
+	 * Represents the resource loader event types.
+	 */
+	public enum Type {
+		OPEN,
+		SCAN,
+		RELOAD_PHASE
+	}
+
+	/**
+	 * Represents the implementation of the events, only loaded if JFR is available.
+	 */
+	public interface Sink {
+		boolean isEnabled(Type type);
+
+		@Nullable Object begin(Type type);
+
+		void commitOpen(Object event, String pack, String modId, String path, long bytes);
+
+		void commitScan(Object event, String pack, String modId, String operation, String target, int results);
+
+		void commitReloadPhase(Object event, String listener, String phase, String resourceType);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Computes content fingerprints of the resources found under prefixes of a resource manager.
+ * <p>
+ * A fingerprint covers the identifier, the name of every pack providing it and the content of every resource
+ * and of its {@code .mcmeta} sidecar, so adding, removing, overriding or editing a resource changes it. Content is hashed with 64-bit FNV-1a.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceFingerprint {
+	private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long PRIME = 0x100000001b3L;
+	private static final String METADATA_EXTENSION = ".mcmeta";
+
+	private ResourceFingerprint() {
+		throw new UnsupportedOperationException("ResourceFingerprint only contains static definitions.");
+	}
+
+	/**
+	 * Computes the fingerprint of the resources found under the given prefixes.
+	 *
+	 * @param manager  The resource manager.
+	 * @param prefixes The resource prefixes.
+	 * @return The fingerprint.
+	 * @throws IOException If a resource cannot be read.
+	 */
+	public static long compute(ResourceManager manager, Collection<String> prefixes) throws IOException {
+		long hash = OFFSET_BASIS;
+		byte[] buffer = new byte[8192];
+
+		for (String prefix : prefixes) {
+			hash = update(hash, prefix);
+			// The resource manager gives no ordering guarantee, sort to keep the fingerprint stable.
+			List<Identifier> ids = new ArrayList<>(manager.findResources(prefix, path -> true));
+			ids.sort(null);
+
+			for (Identifier id : ids) {
+				hash = update(hash, id.toString());
+				boolean metadata = false;
+
+				for (Resource resource : manager.getAllResources(id)) {
+					metadata |= resource.hasMetadata();
+					hash = update(hash, resource, buffer);
+				}
+
+				// Listing skips .mcmeta sidecars, hash them explicitly as they change how the resource is read.
+				if (metadata) {
+					hash = update(hash, METADATA_EXTENSION);
+
+					for (Resource resource : manager.getAllResources(new Identifier(id.getNamespace(), id.getPath() + METADATA_EXTENSION))) {
+						hash = update(hash, resource, buffer);
+					}
+				}
+			}
+		}
+
+		return hash;
+	}
+
+	private static long update(long hash, Resource resource, byte[] buffer) throws IOException {
+		try (Resource r = resource; InputStream input = r.getInputStream()) {
+			hash = update(hash, r.getResourcePackName());
+			int read;
+
+			while ((read = input.read(buffer)) != -1) {
+				hash = update(hash, buffer, read);
+			}
+		}
+
+		return hash;
+	}
+
+	private static long update(long hash, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		// Terminate the string with a zero byte so that adjacent values cannot be confused.
+		return update(hash, bytes, bytes.length) * PRIME;
+	}
+
+	private static long update(long hash, byte[] bytes, int length) {
+		for (int i = 0; i < length; i++) {
+			hash ^= bytes[i] & 0xff;
+			hash *= PRIME;
+		}
+
+		return hash;
+	}
+}
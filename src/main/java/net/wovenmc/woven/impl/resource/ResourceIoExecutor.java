@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.wovenmc.woven.api.resource.IoExecutorStats;
+import net.wovenmc.woven.api.resource.ResourceReloadToken;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the bounded executor running blocking resource reads, apart from the CPU-sized worker pool.
+ * <p>
+ * Every task runs with the reload token of the thread submitting it.
+ * Every task is timed from its submission, the time spent waiting for a thread and the time spent running
+ * are accumulated, along with the peak queue depth.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceIoExecutor implements Executor {
+	private final ThreadPoolExecutor executor;
+	private final AtomicInteger peakQueueDepth = new AtomicInteger();
+	private final LongAdder completedTasks = new LongAdder();
+	private final LongAdder queuedNanos = new LongAdder();
+	private final LongAdder busyNanos = new LongAdder();
+
+	/**
+	 * Creates an I/O executor.
+	 *
+	 * @param threads The maximum amount of threads.
+	 * @param name    The name of the threads, suffixed by their number.
+	 */
+	public ResourceIoExecutor(int threads, String name) {
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, name + " #" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Reads happen in bursts during reloads, don't keep idle threads around.
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		long submitted = System.nanoTime();
+		// Tasks work for the reload of the submitting thread, if any.
+		ResourceReloadToken token = ReloadCancellation.current();
+		this.executor.execute(() -> {
+			long started = System.nanoTime();
+			this.queuedNanos.add(started - submitted);
+
+			try {
+				// Reads on this executor are reload reads, they are throttled.
+				ReloadCancellation.run(token, () -> ResourceReadThrottle.runBackpressured(task));
+			} finally {
+				this.busyNanos.add(System.nanoTime() - started);
+				this.completedTasks.increment();
+			}
+		});
+
+		int queueDepth = this.executor.getQueue().size();
+		this.peakQueueDepth.accumulateAndGet(queueDepth, Math::max);
+	}
+
+	/**
+	 * Returns a snapshot of the activity of this executor.
+	 *
+	 * @return The statistics.
+	 */
+	public IoExecutorStats getStats() {
+		return new IoExecutorStats(this.executor.getMaximumPoolSize(), this.executor.getActiveCount(), this.executor.getQueue().size(),
+				this.peakQueueDepth.get(), this.completedTasks.sum(), this.queuedNanos.sum(), this.busyNanos.sum());
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+/**
+ * This class contains the resource loader settings, read from system properties prefixed by {@code woven.resourceLoader.}.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceLoaderConfig {
+	private static final String PREFIX = "woven.resourceLoader.";
+
+	/**
+	 * Whether mod resource pack indexes are persisted in {@code .cache/woven/} and reused while the mod JAR is unchanged.
+	 */
+	public static final boolean INDEX_CACHE = getBoolean("indexCache", true);
+	/**
+	 * Whether mod resource packs are discovered concurrently at startup.
+	 */
+	public static final boolean PARALLEL_DISCOVERY = getBoolean("parallelDiscovery", true);
+	/**
+	 * The maximum amount of threads probing mod resource packs concurrently, discovery is I/O-bound.
+	 */
+	public static final int DISCOVERY_THREADS = getInt("discoveryThreads",
+			Math.max(2, Math.min(16, Runtime.getRuntime().availableProcessors() * 2)));
+	/**
+	 * The maximum amount of threads of the I/O executor offered to reload listeners, reads are I/O-bound.
+	 */
+	public static final int IO_THREADS = getInt("ioThreads",
+			Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())));
+	/**
+	 * Whether the mod resource packs of a resource type are merged into a single composite resource pack.
+	 */
+	public static final boolean COMPOSITE_PACKS = getBoolean("compositePacks", false);
+	/**
+	 * The maximum amount of bytes of resource files kept in memory between reads, {@code 0} disables the content cache.
+	 */
+	public static final long CONTENT_CACHE_SIZE = getLong("contentCacheSize", 0);
+	/**
+	 * The amount of resource bytes opened by reload tasks from which new reading tasks are held back,
+	 * {@code 0} disables the throttle. This limits how many tasks read at once, it doesn't cap memory.
+	 */
+	public static final long RELOAD_READ_THROTTLE = getLong("reloadReadThrottle", 0);
+	/**
+	 * Whether the apply stage of registered reload listeners runs as soon as their own dependencies are done,
+	 * instead of after every listener is prepared.
+	 */
+	public static final boolean DEPENDENCY_SCHEDULING = getBoolean("dependencyScheduling", false);
+	/**
+	 * The time in milliseconds sliced apply stages may run per frame, or per task outside of the client.
+	 */
+	public static final long APPLY_SLICE_BUDGET = getLong("applySliceBudget", 8);
+	/**
+	 * Whether a reload is cancelled once a newer reload of the same resource type starts,
+	 * a superseded {@code /reload} is then reported as failed.
+	 */
+	public static final boolean SUPERSEDE_RELOADS = getBoolean("supersedeReloads", false);
+	/**
+	 * Whether the cost of every reload listener is measured and summarized after each reload.
+	 */
+	public static final boolean RELOAD_STATS = getBoolean("reloadStats", false);
+	/**
+	 * Whether Java Flight Recorder events are emitted for resource opens, scans and reload phases, when JFR is available.
+	 */
+	public static final boolean JFR_EVENTS = getBoolean("jfrEvents", true);
+
+	private ResourceLoaderConfig() {
+		throw new UnsupportedOperationException("ResourceLoaderConfig only contains static definitions.");
+	}
+
+	private static boolean getBoolean(String key, boolean defaultValue) {
+		return Boolean.parseBoolean(System.getProperty(PREFIX + key, Boolean.toString(defaultValue)));
+	}
+
+	private static int getInt(String key, int defaultValue) {
+		try {
+			return Integer.parseInt(System.getProperty(PREFIX + key, Integer.toString(defaultValue)));
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static long getLong(String key, long defaultValue) {
+		try {
+			return Long.parseLong(System.getProperty(PREFIX + key, Long.toString(defaultValue)));
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+}
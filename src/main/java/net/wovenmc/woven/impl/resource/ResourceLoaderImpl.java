@@ -18,21 +18,41 @@ package net.wovenmc.woven.impl.resource;
 
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
+import net.minecraft.resource.ResourceManager;
 import net.minecraft.resource.ResourcePackProfile;
 import net.minecraft.resource.ResourcePackSource;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Pair;
+import net.wovenmc.woven.api.resource.IoExecutorStats;
 import net.wovenmc.woven.api.resource.ModResourcePack;
 import net.wovenmc.woven.api.resource.ResourceLoader;
 import net.wovenmc.woven.api.resource.ResourcePackActivationType;
+import net.wovenmc.woven.api.resource.ResourceReloadToken;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -43,6 +63,9 @@ import java.util.function.Consumer;
  */
 public class ResourceLoaderImpl implements ResourceLoader {
 	public static final ResourceLoaderImpl INSTANCE = new ResourceLoaderImpl();
+	private static final ExecutorService DISCOVERY_EXECUTOR = createDiscoveryExecutor();
+	private static final ResourceIoExecutor IO_EXECUTOR = new ResourceIoExecutor(ResourceLoaderConfig.IO_THREADS, "Woven Resource I/O");
+	private static final Map<ModResourcePackKey, Optional<ModResourcePack>> MOD_RESOURCE_PACKS = new ConcurrentHashMap<>();
 
 	private final Set<Pair<String, ModNioResourcePack>> builtinResourcePacks = new HashSet<>();
 
@@ -65,19 +88,60 @@ public class ResourceLoaderImpl implements ResourceLoader {
 			}
 		}));
 
+		ModResourcePackProvider.invalidateCache();
 		return true;
 	}
 
+	@Override
+	public Executor getIoExecutor() {
+		return IO_EXECUTOR;
+	}
+
+	@Override
+	public IoExecutorStats getIoExecutorStats() {
+		return IO_EXECUTOR.getStats();
+	}
+
+	@Override
+	public int getIoThreadCount() {
+		return ResourceLoaderConfig.IO_THREADS;
+	}
+
+	@Override
+	public SeekableByteChannel openChannel(ByteBuffer buffer) {
+		return new ByteBufferChannel(buffer);
+	}
+
+	@Override
+	public long fingerprint(ResourceManager manager, Collection<String> prefixes) throws IOException {
+		return ResourceFingerprint.compute(manager, prefixes);
+	}
+
+	@Override
+	public CompletableFuture<Void> scheduleApplySlices(Iterator<? extends Runnable> units, Executor executor, ResourceManager manager) {
+		return TimeSlicedApplyScheduler.schedule(units, executor, manager);
+	}
+
+	@Override
+	public ResourceReloadToken getCurrentReloadToken() {
+		return ReloadCancellation.current();
+	}
+
 	public void registerBuiltinResourcePacks(ResourceType resourceType, Consumer<ResourcePackProfile> consumer, ResourcePackProfile.Factory factory) {
 		// Loop through each registered built-in resource packs and add them if valid.
 		for (Pair<String, ModNioResourcePack> entry : this.builtinResourcePacks) {
+			if (entry.getRight().isDirectoryBacked()) {
+				// Directory-backed packs may have changed since the last scan.
+				entry.getRight().invalidate();
+			}
+
 			// Add the built-in pack only if namespaces for the specified resource type are present.
 			if (!entry.getRight().getNamespaces(resourceType).isEmpty()) {
 				// Make the resource pack profile for built-in pack, should never be always enabled.
-				ResourcePackProfile profile = ResourcePackProfile.of(entry.getLeft(),
+				ResourcePackProfile profile = ModResourcePackInfo.attach(ResourcePackProfile.of(entry.getLeft(),
 						entry.getRight().getActivationType() == ResourcePackActivationType.ALWAYS_ENABLED,
 						entry::getRight, factory, ResourcePackProfile.InsertionPosition.TOP,
-						ResourcePackSource.PACK_SOURCE_BUILTIN);
+						ResourcePackSource.PACK_SOURCE_BUILTIN), entry.getRight());
 
 				if (profile != null) {
 					consumer.accept(profile);
@@ -86,36 +150,121 @@ public class ResourceLoaderImpl implements ResourceLoader {
 		}
 	}
 
+	/**
+	 * Returns whether any registered built-in resource pack is backed by a directory, whose content may change at any time.
+	 *
+	 * @return True if a built-in resource pack is backed by a directory, else false.
+	 */
+	public boolean hasDirectoryBackedBuiltinResourcePacks() {
+		for (Pair<String, ModNioResourcePack> entry : this.builtinResourcePacks) {
+			if (entry.getRight().isDirectoryBacked()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	/**
 	 * Appends mod resource packs to the given list.
+	 * <p>
+	 * Mods are probed concurrently on a bounded I/O pool unless disabled in {@link ResourceLoaderConfig},
+	 * the resource packs are always appended in the mod order. Discovered resource packs of jar mods are memoized
+	 * per mod, resource type and sub path for the whole session, as their content cannot change.
 	 *
 	 * @param packs   The resource pack list to append.
 	 * @param type    The type of resource.
 	 * @param subPath The resource pack sub path directory in mods, may be null.
 	 */
 	public static void appendModResourcePacks(List<ModResourcePack> packs, ResourceType type, @Nullable String subPath) {
+		List<CompletableFuture<Optional<ModResourcePack>>> futures = new ArrayList<>();
+
 		for (ModContainer container : FabricLoader.getInstance().getAllMods()) {
-			if (container.getMetadata().getType().equals("builtin")) {
-				continue;
+			ModResourcePackKey key = new ModResourcePackKey(container.getMetadata().getId(), type, subPath);
+			Optional<ModResourcePack> cached = MOD_RESOURCE_PACKS.get(key);
+
+			if (cached != null) {
+				futures.add(CompletableFuture.completedFuture(cached));
+			} else if (ResourceLoaderConfig.PARALLEL_DISCOVERY) {
+				futures.add(CompletableFuture.supplyAsync(() -> discoverModResourcePack(container, key), DISCOVERY_EXECUTOR));
+			} else {
+				futures.add(CompletableFuture.completedFuture(discoverModResourcePack(container, key)));
 			}
+		}
 
-			Path path = container.getRootPath();
+		// Join in submission order to keep the mod order deterministic.
+		for (CompletableFuture<Optional<ModResourcePack>> future : futures) {
+			future.join().ifPresent(packs::add);
+		}
+	}
 
-			if (subPath != null) {
-				Path childPath = path.resolve(subPath.replaceAll("/", path.getFileSystem().getSeparator())).toAbsolutePath().normalize();
+	private static Optional<ModResourcePack> discoverModResourcePack(ModContainer container, ModResourcePackKey key) {
+		if (container.getMetadata().getType().equals("builtin")) {
+			MOD_RESOURCE_PACKS.put(key, Optional.empty());
+			return Optional.empty();
+		}
 
-				if (!childPath.startsWith(path) || !Files.exists(childPath)) {
-					continue;
-				}
+		Path path = container.getRootPath();
+		Optional<ModResourcePack> result = Optional.empty();
 
-				path = childPath;
-			}
+		if (key.subPath != null) {
+			path = path.resolve(key.subPath.replaceAll("/", path.getFileSystem().getSeparator())).toAbsolutePath().normalize();
+		}
 
+		if (path.startsWith(container.getRootPath()) && Files.exists(path)) {
 			ModResourcePack resourcePack = new ModNioResourcePack(container.getMetadata(), path, ResourcePackActivationType.ALWAYS_ENABLED);
 
-			if (!resourcePack.getNamespaces(type).isEmpty()) {
-				packs.add(resourcePack);
+			if (!resourcePack.getNamespaces(key.type).isEmpty()) {
+				result = Optional.of(resourcePack);
 			}
 		}
+
+		// Directory-backed mods, in development environments, may change between two scans.
+		if (ResourcePackIndexCache.getJarPath(container.getRootPath()) != null) {
+			MOD_RESOURCE_PACKS.put(key, result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Represents the memoization key of a mod resource pack.
+	 */
+	private static final class ModResourcePackKey {
+		private final String modId;
+		private final ResourceType type;
+		private final @Nullable String subPath;
+
+		private ModResourcePackKey(String modId, ResourceType type, @Nullable String subPath) {
+			this.modId = modId;
+			this.type = type;
+			this.subPath = subPath;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof ModResourcePackKey)) return false;
+			ModResourcePackKey other = (ModResourcePackKey) o;
+			return this.modId.equals(other.modId) && this.type == other.type && Objects.equals(this.subPath, other.subPath);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.modId, this.type, this.subPath);
+		}
+	}
+
+	private static ExecutorService createDiscoveryExecutor() {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(ResourceLoaderConfig.DISCOVERY_THREADS, ResourceLoaderConfig.DISCOVERY_THREADS,
+				30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "Woven Resource Discovery #" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		// Discovery happens in bursts, don't keep idle threads around.
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 }
@@ -20,28 +20,47 @@ import net.minecraft.resource.ResourceReloadListener;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
 import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ReloadListenerStats;
+import net.wovenmc.woven.api.resource.ResourceReloadPhase;
 import net.wovenmc.woven.api.resource.ResourceManagerHelper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 	private static final Map<ResourceType, ResourceManagerHelperImpl> RESOURCE_MANAGERS = new HashMap<>();
 	private static final Logger LOGGER = LogManager.getLogger();
 
+	private final ResourceType type;
 	private final Set<IdentifiableResourceReloadListener> addedListeners = new LinkedHashSet<>();
 	private final Set<Identifier> addedListenerIds = new HashSet<>();
+	private final Map<Identifier, Long> fingerprints = new ConcurrentHashMap<>();
+	private int version;
+	private @Nullable SortedListeners sortedListeners;
+	private volatile List<ReloadListenerStats> reloadListenerStats = Collections.emptyList();
+
+	protected ResourceManagerHelperImpl(ResourceType type) {
+		this.type = type;
+	}
 
 	public static ResourceManagerHelper get(ResourceType type) {
-		return RESOURCE_MANAGERS.computeIfAbsent(type, t -> new ResourceManagerHelperImpl());
+		return RESOURCE_MANAGERS.computeIfAbsent(type, ResourceManagerHelperImpl::new);
 	}
 
 	@Override
@@ -54,14 +73,39 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 		if (!this.addedListeners.add(listener)) {
 			throw new RuntimeException("Listener with previously unknown ID \"" + listener.getIdentifier() + "\" already in listener set!");
 		}
+
+		this.version++;
+	}
+
+	@Override
+	public List<ReloadListenerStats> getReloadListenerStats() {
+		return this.reloadListenerStats;
 	}
 
-	public static void sort(ResourceType type, List<ResourceReloadListener> listeners) {
+	/**
+	 * Returns the listeners of a reload, with the registered listeners sorted after the given listeners.
+	 *
+	 * @param type      The resource type of the reload.
+	 * @param listeners The listeners of the resource manager, left untouched.
+	 * @return The listeners of the reload.
+	 */
+	public static List<ResourceReloadListener> sort(ResourceType type, List<ResourceReloadListener> listeners) {
 		ResourceManagerHelperImpl instance = RESOURCE_MANAGERS.get(type);
+		List<ResourceReloadListener> sorted = new ArrayList<>(listeners);
 
 		if (instance != null) {
-			instance.sort(listeners);
+			instance.sort(sorted);
 		}
+
+		if (ResourceLoaderConfig.RELOAD_STATS) {
+			ResourceManagerHelperImpl helper = (ResourceManagerHelperImpl) get(type);
+			sorted = ReloadListenerInstrumentation.instrument(type, sorted, stats -> helper.reloadListenerStats = stats);
+		} else if (ResourceEvents.isEnabled(ResourceEvents.Type.RELOAD_PHASE)) {
+			// A flight recording is running, instrument the listeners only to emit the reload phase events.
+			sorted = ReloadListenerInstrumentation.instrument(type, sorted, null);
+		}
+
+		return sorted;
 	}
 
 	protected void sort(List<ResourceReloadListener> listeners) {
@@ -73,7 +117,6 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 		//   trust them 100%. Only code doesn't lie.
 		// - We addReloadListener all custom listeners after vanilla listeners. Same reasons.
 
-		List<IdentifiableResourceReloadListener> listenersToAdd = new ArrayList<>(this.addedListeners);
 		Set<Identifier> resolvedIds = new HashSet<>();
 
 		for (ResourceReloadListener listener : listeners) {
@@ -82,26 +125,248 @@ public class ResourceManagerHelperImpl implements ResourceManagerHelper {
 			}
 		}
 
-		int lastSize = -1;
+		// The order only changes when listeners are registered, or if the vanilla listeners change.
+		SortedListeners sorted = this.sortedListeners;
+
+		if (sorted == null || sorted.version != this.version || !sorted.resolvedIds.equals(resolvedIds)) {
+			sorted = this.sortListeners(resolvedIds);
+			this.sortedListeners = sorted;
+		}
+
+		List<IdentifiableResourceReloadListener> reloaded = SkippableReloadListener.wrap(sorted.listeners, this.fingerprints);
+		int deferredIndex = reloaded.size() - sorted.deferredCount;
+		List<IdentifiableResourceReloadListener> immediate = new ArrayList<>(reloaded.subList(0, deferredIndex));
+		List<IdentifiableResourceReloadListener> deferred = new ArrayList<>(reloaded.subList(deferredIndex, reloaded.size()));
+
+		if (ResourceLoaderConfig.DEPENDENCY_SCHEDULING && !immediate.isEmpty()) {
+			listeners.add(new DependencyReloadListenerGroup(immediate));
+		} else {
+			listeners.addAll(immediate);
+		}
+
+		if (!deferred.isEmpty()) {
+			listeners.add(new DeferredReloadListenerGroup(deferred));
+		}
+	}
+
+	/**
+	 * Sorts the added listeners topologically, ties are broken by effective phase then registration order.
+	 *
+	 * @param resolvedIds The identifiers of the listeners already present.
+	 * @return The sorted listeners, without the listeners whose dependencies cannot be resolved.
+	 */
+	private SortedListeners sortListeners(Set<Identifier> resolvedIds) {
+		List<IdentifiableResourceReloadListener> addedListeners = new ArrayList<>(this.addedListeners);
+		Map<Identifier, Integer> indexes = new HashMap<>();
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			indexes.put(addedListeners.get(i).getIdentifier(), i);
+		}
+
+		int[] pendingDependencies = new int[addedListeners.size()];
+		List<List<Integer>> dependents = new ArrayList<>();
+		Map<Identifier, Set<Identifier>> missingIds = new LinkedHashMap<>();
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			dependents.add(new ArrayList<>());
+		}
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			IdentifiableResourceReloadListener listener = addedListeners.get(i);
+
+			for (Identifier dependency : new LinkedHashSet<>(listener.getDependencies())) {
+				Integer dependencyIndex = indexes.get(dependency);
+
+				if (dependencyIndex != null) {
+					pendingDependencies[i]++;
+					dependents.get(dependencyIndex).add(i);
+				} else if (!resolvedIds.contains(dependency)) {
+					missingIds.computeIfAbsent(listener.getIdentifier(), id -> new LinkedHashSet<>()).add(dependency);
+				}
+			}
+		}
+
+		ResourceReloadPhase[] phases = this.resolvePhases(addedListeners, dependents);
+		// Kahn's algorithm, the queue always yields the listener of the earliest phase, then the earliest registered, which is ready.
+		PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator.comparingInt((Integer index) -> phases[index].ordinal())
+				.thenComparingInt(index -> index));
+		List<ResourceReloadPhase> sortedPhases = new ArrayList<>(addedListeners.size());
+		List<IdentifiableResourceReloadListener> sorted = new ArrayList<>(addedListeners.size());
+		boolean[] added = new boolean[addedListeners.size()];
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			if (pendingDependencies[i] == 0 && !missingIds.containsKey(addedListeners.get(i).getIdentifier())) {
+				ready.add(i);
+			}
+		}
+
+		while (!ready.isEmpty()) {
+			int index = ready.poll();
+			sorted.add(addedListeners.get(index));
+			sortedPhases.add(phases[index]);
+			added[index] = true;
+
+			for (int dependent : dependents.get(index)) {
+				if (--pendingDependencies[dependent] == 0 && !missingIds.containsKey(addedListeners.get(dependent).getIdentifier())) {
+					ready.add(dependent);
+				}
+			}
+		}
+
+		if (sorted.size() != addedListeners.size()) {
+			this.reportUnresolved(addedListeners, added, missingIds);
+		}
+
+		return SortedListeners.of(this.version, resolvedIds, sorted, sortedPhases);
+	}
+
+	/**
+	 * Resolves the effective phase of every added listener: the earliest of its own phase
+	 * and of the effective phases of the listeners depending on it.
+	 * Only client resource reloads defer listeners, deferred listeners of other reloads run in the normal phase.
+	 *
+	 * @param addedListeners The added listeners.
+	 * @param dependents     The indexes of the listeners depending on each added listener.
+	 * @return The effective phases, by listener index.
+	 */
+	private ResourceReloadPhase[] resolvePhases(List<IdentifiableResourceReloadListener> addedListeners, List<List<Integer>> dependents) {
+		ResourceReloadPhase[] phases = new ResourceReloadPhase[addedListeners.size()];
+		List<List<Integer>> dependencies = new ArrayList<>();
+		Deque<Integer> pending = new ArrayDeque<>();
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			phases[i] = addedListeners.get(i).getPhase();
+			dependencies.add(new ArrayList<>());
+
+			if (phases[i] == ResourceReloadPhase.DEFERRED && this.type != ResourceType.CLIENT_RESOURCES) {
+				phases[i] = ResourceReloadPhase.NORMAL;
+			}
+
+			pending.add(i);
+		}
+
+		for (int i = 0; i < addedListeners.size(); i++) {
+			for (int dependent : dependents.get(i)) {
+				dependencies.get(dependent).add(i);
+			}
+		}
+
+		// Push the phase of every listener down to its dependencies, again whenever it moves earlier.
+		// Phases only move earlier, so this terminates even with dependency cycles.
+		while (!pending.isEmpty()) {
+			int index = pending.poll();
+
+			for (int dependency : dependencies.get(index)) {
+				if (phases[index].compareTo(phases[dependency]) < 0) {
+					phases[dependency] = phases[index];
+					pending.add(dependency);
+				}
+			}
+		}
+
+		return phases;
+	}
 
-		while (listeners.size() != lastSize) {
-			lastSize = listeners.size();
+	private void reportUnresolved(List<IdentifiableResourceReloadListener> addedListeners, boolean[] added, Map<Identifier, Set<Identifier>> missingIds) {
+		missingIds.forEach((id, missing) ->
+				LOGGER.warn("Could not resolve dependencies for listener \"" + id + "\", missing listeners: " + missing + "!"));
 
-			Iterator<IdentifiableResourceReloadListener> it = listenersToAdd.iterator();
+		Map<Identifier, IdentifiableResourceReloadListener> unresolved = new LinkedHashMap<>();
 
-			while (it.hasNext()) {
-				IdentifiableResourceReloadListener listener = it.next();
+		for (int i = 0; i < addedListeners.size(); i++) {
+			if (!added[i] && !missingIds.containsKey(addedListeners.get(i).getIdentifier())) {
+				unresolved.put(addedListeners.get(i).getIdentifier(), addedListeners.get(i));
+			}
+		}
+
+		// The remaining listeners either are in a cycle or depend on an unresolved listener.
+		Set<Identifier> reported = new HashSet<>();
+
+		for (IdentifiableResourceReloadListener listener : unresolved.values()) {
+			List<Identifier> cycle = findCycle(listener.getIdentifier(), unresolved, new ArrayList<>(), new HashSet<>());
+
+			if (cycle != null && !reported.containsAll(cycle)) {
+				reported.addAll(cycle);
+				cycle.add(cycle.get(0));
+				LOGGER.warn("Could not resolve dependencies for listeners, dependency cycle: "
+						+ cycle.stream().map(Identifier::toString).collect(Collectors.joining(" -> ")) + "!");
+			}
+		}
 
-				if (resolvedIds.containsAll(listener.getDependencies())) {
-					resolvedIds.add(listener.getIdentifier());
-					listeners.add(listener);
-					it.remove();
+		for (IdentifiableResourceReloadListener listener : unresolved.values()) {
+			if (reported.contains(listener.getIdentifier())) {
+				continue;
+			}
+
+			Set<Identifier> unresolvedDependencies = new LinkedHashSet<>(listener.getDependencies());
+			unresolvedDependencies.retainAll(unresolved.keySet());
+			missingIds.keySet().stream().filter(listener.getDependencies()::contains).forEach(unresolvedDependencies::add);
+			LOGGER.warn("Could not resolve dependencies for listener \"" + listener.getIdentifier() + "\", unresolved listeners: " + unresolvedDependencies + "!");
+		}
+	}
+
+	private static @Nullable List<Identifier> findCycle(Identifier id, Map<Identifier, IdentifiableResourceReloadListener> unresolved,
+			List<Identifier> path, Set<Identifier> visited) {
+		int index = path.indexOf(id);
+
+		if (index != -1) {
+			return new ArrayList<>(path.subList(index, path.size()));
+		}
+
+		if (!visited.add(id)) {
+			return null;
+		}
+
+		path.add(id);
+
+		for (Identifier dependency : unresolved.get(id).getDependencies()) {
+			if (unresolved.containsKey(dependency)) {
+				List<Identifier> cycle = findCycle(dependency, unresolved, path, visited);
+
+				if (cycle != null) {
+					return cycle;
 				}
 			}
 		}
 
-		for (IdentifiableResourceReloadListener listener : listenersToAdd) {
-			LOGGER.warn("Could not resolve dependencies for listener \"" + listener.getIdentifier() + "\"!");
+		path.remove(path.size() - 1);
+		return null;
+	}
+
+	/**
+	 * Represents the memoized order of the added listeners.
+	 */
+	private static final class SortedListeners {
+		private final int version;
+		private final Set<Identifier> resolvedIds;
+		private final List<IdentifiableResourceReloadListener> listeners;
+		private final int deferredCount;
+
+		private SortedListeners(int version, Set<Identifier> resolvedIds, List<IdentifiableResourceReloadListener> listeners, int deferredCount) {
+			this.version = version;
+			this.resolvedIds = resolvedIds;
+			this.listeners = listeners;
+			this.deferredCount = deferredCount;
+		}
+
+		/**
+		 * Moves the listeners whose effective phase is deferred to the end of the sorted listeners.
+		 */
+		private static SortedListeners of(int version, Set<Identifier> resolvedIds, List<IdentifiableResourceReloadListener> sorted,
+				List<ResourceReloadPhase> phases) {
+			List<IdentifiableResourceReloadListener> listeners = new ArrayList<>(sorted.size());
+			List<IdentifiableResourceReloadListener> deferred = new ArrayList<>();
+
+			for (int i = 0; i < sorted.size(); i++) {
+				if (phases.get(i) == ResourceReloadPhase.DEFERRED) {
+					deferred.add(sorted.get(i));
+				} else {
+					listeners.add(sorted.get(i));
+				}
+			}
+
+			listeners.addAll(deferred);
+			return new SortedListeners(version, resolvedIds, listeners, deferred.size());
 		}
 	}
 }
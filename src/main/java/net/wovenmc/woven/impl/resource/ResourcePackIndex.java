@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.InvalidIdentifierException;
+import net.wovenmc.woven.api.resource.ResourceQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Represents an immutable in-memory index of the regular files of a resource pack.
+ * <p>
+ * Only the resource type directories ({@code assets/} and {@code data/}) are indexed,
+ * paths are stored relative to the pack root and always use {@code /} as separator.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourcePackIndex {
+	private static final Logger LOGGER = LogManager.getLogger();
+	public static final ResourcePackIndex EMPTY = new ResourcePackIndex(new TreeMap<>());
+
+	private final Set<String> files;
+	private final String[] sortedFiles;
+	private final long[] sizes;
+	private volatile ExtensionIndex extensionIndex;
+
+	private ResourcePackIndex(SortedMap<String, Long> files) {
+		this.files = new HashSet<>(files.keySet());
+		this.sortedFiles = files.keySet().toArray(new String[0]);
+		this.sizes = new long[this.sortedFiles.length];
+		int i = 0;
+
+		for (long size : files.values()) {
+			this.sizes[i++] = size;
+		}
+	}
+
+	/**
+	 * Builds the index of the given resource pack root by walking its resource type directories once.
+	 *
+	 * @param root The root path of the resource pack.
+	 * @return The index.
+	 * @throws IOException If the resource pack cannot be walked.
+	 */
+	public static ResourcePackIndex build(Path root) throws IOException {
+		String separator = root.getFileSystem().getSeparator();
+		SortedMap<String, Long> files = new TreeMap<>();
+
+		for (ResourceType type : ResourceType.values()) {
+			Path typePath = root.resolve(type.getDirectory());
+
+			if (!Files.isDirectory(typePath)) {
+				continue;
+			}
+
+			// Directory links aren't followed, they may form cycles. Linked files are still indexed.
+			Files.walkFileTree(typePath, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					BasicFileAttributes fileAttrs = attrs;
+
+					if (attrs.isSymbolicLink()) {
+						try {
+							fileAttrs = Files.readAttributes(file, BasicFileAttributes.class);
+						} catch (IOException e) {
+							return this.visitFileFailed(file, e);
+						}
+					}
+
+					if (fileAttrs.isRegularFile()) {
+						files.put(root.relativize(file).toString().replace(separator, "/"), fileAttrs.size());
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException e) {
+					LOGGER.warn("Couldn't index resource pack file {}, skipping it.", file, e);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+
+		return new ResourcePackIndex(files);
+	}
+
+	/**
+	 * Reads an index previously written with {@link #write(DataOutput)}.
+	 *
+	 * @param input The input to read from.
+	 * @return The index.
+	 * @throws IOException If the index cannot be read.
+	 */
+	public static ResourcePackIndex read(DataInput input) throws IOException {
+		int count = input.readInt();
+		SortedMap<String, Long> files = new TreeMap<>();
+		String previous = "";
+
+		for (int i = 0; i < count; i++) {
+			// Paths are front-coded: only the suffix which differs from the previous path is stored.
+			int shared = readVarInt(input);
+			String path = previous.substring(0, shared) + input.readUTF();
+			files.put(path, readVarLong(input));
+			previous = path;
+		}
+
+		return new ResourcePackIndex(files);
+	}
+
+	/**
+	 * Writes this index in a compact binary form.
+	 *
+	 * @param output The output to write to.
+	 * @throws IOException If the index cannot be written.
+	 */
+	public void write(DataOutput output) throws IOException {
+		output.writeInt(this.sortedFiles.length);
+		String previous = "";
+
+		for (int i = 0; i < this.sortedFiles.length; i++) {
+			String path = this.sortedFiles[i];
+			int shared = 0;
+			int max = Math.min(previous.length(), path.length());
+
+			while (shared < max && previous.charAt(shared) == path.charAt(shared)) {
+				shared++;
+			}
+
+			writeVarInt(output, shared);
+			output.writeUTF(path.substring(shared));
+			writeVarLong(output, this.sizes[i]);
+			previous = path;
+		}
+	}
+
+	private static int readVarInt(DataInput input) throws IOException {
+		return (int) readVarLong(input);
+	}
+
+	private static long readVarLong(DataInput input) throws IOException {
+		long value = 0;
+		int shift = 0;
+		byte b;
+
+		do {
+			b = input.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+
+		return value;
+	}
+
+	private static void writeVarInt(DataOutput output, int value) throws IOException {
+		writeVarLong(output, value);
+	}
+
+	private static void writeVarLong(DataOutput output, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		output.writeByte((int) value);
+	}
+
+	/**
+	 * Returns whether the specified path is covered by this index.
+	 * <p>
+	 * A path outside of the resource type directories, like {@code pack.png}, is not covered
+	 * and must be looked up on the file system instead.
+	 *
+	 * @param path The path relative to the resource pack root.
+	 * @return True if the path is covered by this index, else false.
+	 */
+	public static boolean covers(String path) {
+		for (ResourceType type : ResourceType.values()) {
+			String directory = type.getDirectory();
+
+			if (path.length() > directory.length() && path.startsWith(directory) && path.charAt(directory.length()) == '/') {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether the specified file is present in this index.
+	 *
+	 * @param path The path relative to the resource pack root.
+	 * @return True if the file is present, else false.
+	 */
+	public boolean contains(String path) {
+		return this.files.contains(path);
+	}
+
+	/**
+	 * Returns the size of the specified file.
+	 *
+	 * @param path The path relative to the resource pack root.
+	 * @return The size in bytes, or {@code -1} if the file is not present.
+	 */
+	public long getSize(String path) {
+		int index = Arrays.binarySearch(this.sortedFiles, path);
+		return index < 0 ? -1 : this.sizes[index];
+	}
+
+	/**
+	 * Returns the namespaces present in the specified resource type directory.
+	 *
+	 * @param type The resource type.
+	 * @return The namespaces, in lexicographic order.
+	 */
+	public Set<String> getNamespaces(ResourceType type) {
+		Set<String> namespaces = new LinkedHashSet<>();
+		int prefixLength = type.getDirectory().length() + 1;
+
+		this.forEach(type.getDirectory() + "/", path -> {
+			int end = path.indexOf('/', prefixLength);
+
+			// Files directly inside the resource type directory are not namespaces.
+			if (end != -1) {
+				namespaces.add(path.substring(prefixLength, end));
+			}
+		});
+
+		return namespaces;
+	}
+
+	/**
+	 * Performs the given action on each file whose path starts with the given prefix, in lexicographic order.
+	 *
+	 * @param prefix The path prefix, usually a directory ending with {@code /}.
+	 * @param action The action to perform.
+	 */
+	public void forEach(String prefix, Consumer<String> action) {
+		int index = Arrays.binarySearch(this.sortedFiles, prefix);
+
+		if (index < 0) {
+			index = -(index + 1);
+		}
+
+		for (; index < this.sortedFiles.length && this.sortedFiles[index].startsWith(prefix); index++) {
+			action.accept(this.sortedFiles[index]);
+		}
+	}
+
+	/**
+	 * Performs the given action on each file with the given extension inside the given directory or its subdirectories.
+	 * <p>
+	 * The lookup is answered from a secondary index keyed by directory and extension, built on first use.
+	 *
+	 * @param directory The directory, without trailing {@code /}.
+	 * @param extension The extension without the leading dot.
+	 * @param action    The action to perform.
+	 */
+	public void forEachWithExtension(String directory, String extension, Consumer<String> action) {
+		ExtensionIndex extensionIndex = this.extensionIndex;
+
+		if (extensionIndex == null) {
+			// Building twice concurrently is harmless, the result is the same.
+			this.extensionIndex = extensionIndex = new ExtensionIndex(this.sortedFiles);
+		}
+
+		extensionIndex.forEach(directory, extension, action);
+	}
+
+	/**
+	 * Finds the resources under the given prefix like a resource pack would, excluding {@code .mcmeta} files.
+	 *
+	 * @param type       The resource type.
+	 * @param namespace  The namespace.
+	 * @param prefix     The directory to search in, or a file.
+	 * @param maxDepth   The maximum depth of the resources below the prefix.
+	 * @param pathFilter The file name filter.
+	 * @return The identifiers of the matched resources.
+	 */
+	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter) {
+		List<Identifier> identifiers = new ArrayList<>();
+		String namespaceDirectory = type.getDirectory() + "/" + namespace + "/";
+
+		while (prefix.endsWith("/")) {
+			prefix = prefix.substring(0, prefix.length() - 1);
+		}
+
+		String searchDirectory = prefix.isEmpty() ? namespaceDirectory : namespaceDirectory + prefix + "/";
+
+		if (!prefix.isEmpty() && this.contains(namespaceDirectory + prefix)) {
+			// The prefix is a file, walking a file only yields the file itself.
+			addResource(identifiers, namespace, namespaceDirectory + prefix, namespaceDirectory.length(), pathFilter);
+		} else if (maxDepth > 0) {
+			this.forEach(searchDirectory, path -> {
+				int depth = 1;
+
+				for (int i = searchDirectory.length(); i < path.length(); i++) {
+					if (path.charAt(i) == '/') depth++;
+				}
+
+				if (depth <= maxDepth) {
+					addResource(identifiers, namespace, path, namespaceDirectory.length(), pathFilter);
+				}
+			});
+		}
+
+		return identifiers;
+	}
+
+	/**
+	 * Finds the resources matching the given query under the given prefix, at any depth.
+	 * <p>
+	 * Queries restricted to an extension are answered from the extension index.
+	 *
+	 * @param type      The resource type.
+	 * @param namespace The namespace.
+	 * @param prefix    The directory to search in.
+	 * @param query     The file name query.
+	 * @return The identifiers of the matched resources.
+	 */
+	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, ResourceQuery query) {
+		String extension = query.getExtension();
+
+		if (extension == null) {
+			return this.findResources(type, namespace, prefix, Integer.MAX_VALUE, query);
+		}
+
+		List<Identifier> identifiers = new ArrayList<>();
+		String namespaceDirectory = type.getDirectory() + "/" + namespace + "/";
+
+		while (prefix.endsWith("/")) {
+			prefix = prefix.substring(0, prefix.length() - 1);
+		}
+
+		String searchDirectory = prefix.isEmpty() ? type.getDirectory() + "/" + namespace : namespaceDirectory + prefix;
+		this.forEachWithExtension(searchDirectory, extension,
+				path -> addResource(identifiers, namespace, path, namespaceDirectory.length(), query));
+
+		return identifiers;
+	}
+
+	private static void addResource(List<Identifier> identifiers, String namespace, String path, int namespaceDirectoryLength, Predicate<String> pathFilter) {
+		String fileName = path.substring(path.lastIndexOf('/') + 1);
+
+		if (fileName.endsWith(".mcmeta") || !pathFilter.test(fileName)) {
+			return;
+		}
+
+		try {
+			identifiers.add(new Identifier(namespace, path.substring(namespaceDirectoryLength)));
+		} catch (InvalidIdentifierException e) {
+			LOGGER.warn(e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the number of indexed files.
+	 *
+	 * @return The number of indexed files.
+	 */
+	public int size() {
+		return this.sortedFiles.length;
+	}
+
+	/**
+	 * Represents the secondary index of the files grouped by directory then by extension.
+	 */
+	private static final class ExtensionIndex {
+		private final Map<String, Map<String, List<String>>> directories = new HashMap<>();
+		private final String[] sortedDirectories;
+
+		private ExtensionIndex(String[] sortedFiles) {
+			for (String file : sortedFiles) {
+				int slash = file.lastIndexOf('/');
+				String fileName = file.substring(slash + 1);
+
+				this.directories.computeIfAbsent(file.substring(0, slash), d -> new HashMap<>())
+						.computeIfAbsent(ResourceQuery.getExtension(fileName), e -> new ArrayList<>())
+						.add(file);
+			}
+
+			this.sortedDirectories = this.directories.keySet().toArray(new String[0]);
+			Arrays.sort(this.sortedDirectories);
+		}
+
+		private void forEach(String directory, String extension, Consumer<String> action) {
+			int index = Arrays.binarySearch(this.sortedDirectories, directory);
+
+			if (index < 0) {
+				index = -(index + 1);
+			}
+
+			for (; index < this.sortedDirectories.length && this.sortedDirectories[index].startsWith(directory); index++) {
+				String candidate = this.sortedDirectories[index];
+
+				// Skip sibling directories sharing the same name prefix, like "textures" and "textures_old".
+				if (candidate.length() != directory.length() && candidate.charAt(directory.length()) != '/') {
+					continue;
+				}
+
+				List<String> files = this.directories.get(candidate).get(extension);
+
+				if (files != null) {
+					files.forEach(action);
+				}
+			}
+		}
+	}
+}
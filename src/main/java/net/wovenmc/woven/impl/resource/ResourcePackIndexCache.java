@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Persists resource pack indexes of mod and game JARs in {@code .cache/woven/resource_index/}.
+ * <p>
+ * A cached index is keyed by the JAR path, size, modification time and a checksum of the end of the JAR,
+ * where the ZIP central directory lives, any change to the JAR invalidates it.
+ * Directory-backed packs are always walked as they may change at any time.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourcePackIndexCache {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final int MAGIC = 0x57524958; // "WRIX"
+	private static final int FORMAT_VERSION = 1;
+	private static final int TAIL_CHECKSUM_LENGTH = 64 * 1024;
+
+	private ResourcePackIndexCache() {
+		throw new UnsupportedOperationException("ResourcePackIndexCache only contains static definitions.");
+	}
+
+	/**
+	 * Loads the index of the given resource pack root from the cache, or builds it and stores it in the cache.
+	 *
+	 * @param root The root path of the resource pack.
+	 * @return The index.
+	 * @throws IOException If the index had to be built and the resource pack cannot be walked.
+	 */
+	public static ResourcePackIndex load(Path root) throws IOException {
+		Path jar = ResourceLoaderConfig.INDEX_CACHE ? getJarPath(root) : null;
+
+		if (jar == null) {
+			return ResourcePackIndex.build(root);
+		}
+
+		Fingerprint fingerprint;
+
+		try {
+			fingerprint = Fingerprint.of(jar, root);
+		} catch (IOException e) {
+			LOGGER.warn("Cannot fingerprint \"" + jar + "\", its resource index will not be cached.", e);
+			return ResourcePackIndex.build(root);
+		}
+
+		Path cacheFile = getCacheDirectory().resolve(fingerprint.getFileName());
+
+		if (Files.isRegularFile(cacheFile)) {
+			try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+				if (input.readInt() == MAGIC && input.readInt() == FORMAT_VERSION && fingerprint.matches(input)) {
+					return ResourcePackIndex.read(input);
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Cannot read cached resource index \"" + cacheFile + "\", rebuilding it.", e);
+			}
+		}
+
+		ResourcePackIndex index = ResourcePackIndex.build(root);
+
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			Path tempFile = Files.createTempFile(cacheFile.getParent(), fingerprint.getFileName(), ".tmp");
+
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				fingerprint.write(output);
+				index.write(output);
+			}
+
+			Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOGGER.warn("Cannot write resource index cache \"" + cacheFile + "\".", e);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the path of the JAR file containing the given path.
+	 *
+	 * @param path The path.
+	 * @return The JAR path, or {@code null} if the path isn't inside a JAR file.
+	 */
+	public static @Nullable Path getJarPath(Path path) {
+		if (path.getFileSystem() == FileSystems.getDefault()) {
+			return null;
+		}
+
+		URI uri = path.toUri();
+
+		if (!"jar".equals(uri.getScheme())) {
+			return null;
+		}
+
+		String spec = uri.getRawSchemeSpecificPart();
+		int separator = spec.indexOf("!/");
+
+		try {
+			return Paths.get(new URI(separator == -1 ? spec : spec.substring(0, separator)));
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static Path getCacheDirectory() {
+		return FabricLoader.getInstance().getGameDir().resolve(".cache").resolve("woven").resolve("resource_index");
+	}
+
+	/**
+	 * Represents the identity of a resource pack inside a given version of a JAR file.
+	 */
+	private static final class Fingerprint {
+		private final String key;
+		private final long size;
+		private final long lastModified;
+		private final long tailChecksum;
+
+		private Fingerprint(String key, long size, long lastModified, long tailChecksum) {
+			this.key = key;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.tailChecksum = tailChecksum;
+		}
+
+		private static Fingerprint of(Path jar, Path root) throws IOException {
+			BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+			CRC32 crc = new CRC32();
+
+			try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+				long size = channel.size();
+				int length = (int) Math.min(size, TAIL_CHECKSUM_LENGTH);
+				ByteBuffer buffer = ByteBuffer.allocate(length);
+				channel.position(size - length);
+
+				while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+					// Keep reading until the tail is fully read.
+				}
+
+				crc.update(buffer.array(), 0, buffer.position());
+			}
+
+			return new Fingerprint(jar.toAbsolutePath() + "!" + root, attributes.size(),
+					attributes.lastModifiedTime().toMillis(), crc.getValue());
+		}
+
+		private String getFileName() {
+			return UUID.nameUUIDFromBytes(this.key.getBytes(StandardCharsets.UTF_8)) + ".bin";
+		}
+
+		private boolean matches(DataInputStream input) throws IOException {
+			return input.readUTF().equals(this.key) && input.readLong() == this.size
+					&& input.readLong() == this.lastModified && input.readLong() == this.tailChecksum;
+		}
+
+		private void write(DataOutputStream output) throws IOException {
+			output.writeUTF(this.key);
+			output.writeLong(this.size);
+			output.writeLong(this.lastModified);
+			output.writeLong(this.tailChecksum);
+		}
+	}
+}
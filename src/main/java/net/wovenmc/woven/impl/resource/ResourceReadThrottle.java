@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Throttles how many reload tasks read resources at once, based on the resource bytes they opened.
+ * <p>
+ * This is a concurrency limit, not a memory cap: a task reading many resources may exceed the threshold,
+ * and leases are sized by file size rather than by the bytes actually buffered.
+ * <p>
+ * Every tracked stream or buffer leases its file size. A stream opened by a
+ * {@linkplain #runBackpressured(Runnable) backpressured task} returns its lease once the task finishes,
+ * as the bytes read are usually held until then. Other streams return it once closed, and buffers once
+ * they are garbage collected, as does a stream dropped without being closed.
+ * <p>
+ * Only backpressured tasks, which run the prepare stage of a reload or the resource I/O executor, are throttled:
+ * before its first lease, such a task waits while the bytes leased by other tasks reach the threshold.
+ * Once it holds leases, it could wait for itself, so its next leases are granted immediately.
+ * Other threads, like the game thread, are never throttled. A wait is bounded, the lease is granted
+ * after a while so a stuck task can't stall a reload.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class ResourceReadThrottle {
+	private static final Logger LOGGER = LogManager.getLogger();
+	private static final long THRESHOLD = ResourceLoaderConfig.RELOAD_READ_THROTTLE;
+	private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(2);
+	private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private static final ThreadLocal<TaskLeases> TASK_LEASES = new ThreadLocal<>();
+	private static final ReentrantLock LOCK = new ReentrantLock();
+	private static final Condition RELEASED = LOCK.newCondition();
+	private static final ReferenceQueue<Object> COLLECTED = new ReferenceQueue<>();
+	// Keeps the leases reachable until they are returned.
+	private static final Set<Lease> LEASES = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	private static long inFlightBytes;
+
+	private ResourceReadThrottle() {
+		throw new UnsupportedOperationException("ResourceReadThrottle only contains static definitions.");
+	}
+
+	/**
+	 * Returns whether the throttle is enabled.
+	 *
+	 * @return True if the throttle is enabled, else false.
+	 */
+	public static boolean isEnabled() {
+		return THRESHOLD > 0;
+	}
+
+	/**
+	 * Returns the amount of bytes currently leased.
+	 *
+	 * @return The leased bytes.
+	 */
+	public static long getInFlightBytes() {
+		LOCK.lock();
+
+		try {
+			return inFlightBytes;
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Runs a task which is throttled before its first lease, the leases of the streams it opens are returned once it finishes.
+	 *
+	 * @param task The task.
+	 */
+	public static void runBackpressured(Runnable task) {
+		if (!isEnabled() || TASK_LEASES.get() != null) {
+			task.run();
+			return;
+		}
+
+		TaskLeases leases = new TaskLeases();
+		TASK_LEASES.set(leases);
+
+		try {
+			task.run();
+		} finally {
+			TASK_LEASES.remove();
+
+			for (Lease lease : leases.streams) {
+				lease.release();
+			}
+		}
+	}
+
+	/**
+	 * Tracks a stream, waiting for the throttle if needed.
+	 *
+	 * @param stream The stream.
+	 * @param size   The amount of bytes of the stream.
+	 * @return The tracked stream.
+	 */
+	public static InputStream track(InputStream stream, long size) {
+		if (!isEnabled() || size <= 0) {
+			return stream;
+		}
+
+		reserve(size);
+		TaskLeases leases = TASK_LEASES.get();
+		TrackedInputStream tracked = new TrackedInputStream(stream, size, leases != null);
+
+		if (leases != null) {
+			leases.streams.add(tracked.lease);
+		}
+
+		return tracked;
+	}
+
+	/**
+	 * Allocates a tracked direct buffer, waiting for the throttle if needed.
+	 *
+	 * @param capacity The capacity of the buffer.
+	 * @return The buffer, its lease is returned once it is garbage collected.
+	 */
+	public static ByteBuffer allocateDirect(int capacity) {
+		if (!isEnabled() || capacity <= 0) {
+			return ByteBuffer.allocateDirect(capacity);
+		}
+
+		// Reserve first, waiting threads must not hold their buffer yet.
+		reserve(capacity);
+		ByteBuffer buffer;
+
+		try {
+			buffer = ByteBuffer.allocateDirect(capacity);
+		} catch (Throwable t) {
+			unreserve(capacity);
+			throw t;
+		}
+
+		new Lease(buffer, capacity);
+		return buffer;
+	}
+
+	private static void reserve(long size) {
+		returnCollected();
+		LOCK.lock();
+
+		TaskLeases leases = TASK_LEASES.get();
+
+		try {
+			if (leases != null && !leases.holding && inFlightBytes > 0 && inFlightBytes + size > THRESHOLD) {
+				long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+
+				while (inFlightBytes > 0 && inFlightBytes + size > THRESHOLD) {
+					long remaining = deadline - System.nanoTime();
+
+					if (remaining <= 0) {
+						LOGGER.debug("Waited too long for the resource read throttle, exceeding it with {} bytes.", size);
+						break;
+					}
+
+					try {
+						// Wake up regularly, leases of collected objects are only returned when polled.
+						RELEASED.awaitNanos(Math.min(remaining, POLL_NANOS));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+
+					returnCollected();
+				}
+			}
+
+			inFlightBytes += size;
+		} finally {
+			LOCK.unlock();
+		}
+
+		if (leases != null) {
+			leases.holding = true;
+		}
+	}
+
+	private static void unreserve(long size) {
+		LOCK.lock();
+
+		try {
+			inFlightBytes -= size;
+			RELEASED.signalAll();
+		} finally {
+			LOCK.unlock();
+		}
+	}
+
+	private static void returnCollected() {
+		Reference<?> reference;
+
+		while ((reference = COLLECTED.poll()) != null) {
+			((Lease) reference).release();
+		}
+	}
+
+	/**
+	 * Represents the bytes leased by a stream or a buffer.
+	 */
+	private static final class Lease extends PhantomReference<Object> {
+		private final long size;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		/**
+		 * Creates the lease of reserved bytes, returned once the referent is collected if there is one.
+		 */
+		private Lease(Object referent, long size) {
+			super(referent, COLLECTED);
+			this.size = size;
+			LEASES.add(this);
+		}
+
+		private void release() {
+			if (this.released.compareAndSet(false, true)) {
+				LEASES.remove(this);
+				unreserve(this.size);
+			}
+		}
+	}
+
+	/**
+	 * Represents the leases of a backpressured task.
+	 */
+	private static final class TaskLeases {
+		private final List<Lease> streams = new ArrayList<>();
+		private boolean holding;
+	}
+
+	/**
+	 * Represents a stream returning its lease once closed, or once its task finishes if opened by a backpressured task.
+	 */
+	private static final class TrackedInputStream extends FilterInputStream {
+		private final Lease lease;
+		private final boolean taskBound;
+
+		private TrackedInputStream(InputStream in, long size, boolean taskBound) {
+			super(in);
+			// A task bound lease must outlive the stream, so it is not tied to its collection.
+			this.lease = new Lease(taskBound ? null : this, size);
+			this.taskBound = taskBound;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.taskBound) {
+				this.lease.release();
+			}
+
+			super.close();
+		}
+	}
+}
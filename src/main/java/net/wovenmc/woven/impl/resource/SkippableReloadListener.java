@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.IncrementalResourceReloadListener;
+import net.wovenmc.woven.api.resource.ResourceReloadToken;
+import net.wovenmc.woven.api.resource.ResourceReloadPhase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents an incremental reload listener which is skipped when the resources it consumes are unchanged.
+ * <p>
+ * The fingerprint of the consumed resources is computed on the prepare executor, the listener is then either
+ * reloaded, or only signals the reload barrier. A fingerprint is remembered once the listener reloaded successfully.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see IncrementalResourceReloadListener
+ */
+public class SkippableReloadListener implements IdentifiableResourceReloadListener {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final IncrementalResourceReloadListener delegate;
+	private final Map<Identifier, Long> fingerprints;
+	private final Map<Identifier, CompletableFuture<Boolean>> skipped;
+
+	private SkippableReloadListener(IncrementalResourceReloadListener delegate, Map<Identifier, Long> fingerprints,
+			Map<Identifier, CompletableFuture<Boolean>> skipped) {
+		this.delegate = delegate;
+		this.fingerprints = fingerprints;
+		this.skipped = skipped;
+	}
+
+	/**
+	 * Wraps the incremental listeners of a reload.
+	 *
+	 * @param listeners    The listeners, sorted so that every listener comes after its dependencies.
+	 * @param fingerprints The fingerprints of the last successful reload of each listener, updated by the reload.
+	 * @return The listeners, with the incremental listeners wrapped.
+	 */
+	public static List<IdentifiableResourceReloadListener> wrap(List<IdentifiableResourceReloadListener> listeners,
+			Map<Identifier, Long> fingerprints) {
+		// Decisions are registered in reload order, a listener always finds the decisions of its dependencies.
+		Map<Identifier, CompletableFuture<Boolean>> skipped = new HashMap<>();
+		List<IdentifiableResourceReloadListener> wrapped = new ArrayList<>(listeners.size());
+
+		for (IdentifiableResourceReloadListener listener : listeners) {
+			if (listener instanceof IncrementalResourceReloadListener) {
+				wrapped.add(new SkippableReloadListener((IncrementalResourceReloadListener) listener, fingerprints, skipped));
+			} else {
+				wrapped.add(listener);
+			}
+		}
+
+		return wrapped;
+	}
+
+	@Override
+	public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+			Executor prepareExecutor, Executor applyExecutor) {
+		Identifier id = this.getIdentifier();
+		Collection<String> prefixes = this.delegate.getResourcePrefixes();
+		ResourceReloadToken token = ResourceReloadToken.current();
+		CompletableFuture<Long> fingerprint = CompletableFuture.supplyAsync(() -> {
+			token.throwIfCancelled();
+
+			try {
+				return ResourceFingerprint.compute(manager, prefixes);
+			} catch (Exception e) {
+				LOGGER.warn("Cannot fingerprint the resources of listener \"" + id + "\", it will be reloaded.", e);
+				return null;
+			}
+		}, prepareExecutor);
+
+		List<CompletableFuture<Boolean>> dependencies = new ArrayList<>();
+
+		for (Identifier dependency : this.getDependencies()) {
+			CompletableFuture<Boolean> dependencySkipped = this.skipped.get(dependency);
+
+			if (dependencySkipped != null) {
+				dependencies.add(dependencySkipped);
+			}
+		}
+
+		CompletableFuture<Boolean> skip = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+				.thenCombine(fingerprint, (unused, value) -> value != null && value.equals(this.fingerprints.get(id))
+						&& dependencies.stream().allMatch(CompletableFuture::join));
+		this.skipped.put(id, skip);
+
+		return skip.thenCompose(unchanged -> {
+			if (unchanged) {
+				LOGGER.debug("Skipping reload listener \"" + id + "\", its resources are unchanged.");
+				return synchronizer.<Void>whenPrepared(null);
+			}
+
+			token.throwIfCancelled();
+			// Forget the fingerprint first, a failed reload may leave the listener in any state.
+			this.fingerprints.remove(id);
+			Long value = fingerprint.join();
+
+			return this.delegate.reload(synchronizer, manager, prepareProfiler, applyProfiler, prepareExecutor, applyExecutor)
+					.thenRun(() -> {
+						if (value != null) {
+							this.fingerprints.put(id, value);
+						}
+					});
+		});
+	}
+
+	/**
+	 * Returns the wrapped listener.
+	 *
+	 * @return The wrapped listener.
+	 */
+	public IncrementalResourceReloadListener getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public Identifier getIdentifier() {
+		return this.delegate.getIdentifier();
+	}
+
+	@Override
+	public Collection<Identifier> getDependencies() {
+		return this.delegate.getDependencies();
+	}
+
+	@Override
+	public ResourceReloadPhase getPhase() {
+		return this.delegate.getPhase();
+	}
+
+	@Override
+	public String getName() {
+		return this.delegate.getName();
+	}
+}
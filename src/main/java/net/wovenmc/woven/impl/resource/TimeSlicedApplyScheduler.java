@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the work units of sliced apply stages against a time budget.
+ * <p>
+ * For client resource reloads, the render thread pumps the scheduled jobs at the start of each frame, sharing the budget
+ * of the frame between them. Other reloads, like the data reload of an integrated server whose apply executor is
+ * the client while it waits for the reload without rendering, run one budget worth of units per task,
+ * submitting the rest back to the apply executor so that other queued tasks can run in between.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ * @see net.wovenmc.woven.api.resource.SlicedResourceReloadListener
+ */
+public final class TimeSlicedApplyScheduler {
+	private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(ResourceLoaderConfig.APPLY_SLICE_BUDGET);
+	// Only accessed by the frame thread.
+	private static final Queue<Job> FRAME_JOBS = new ArrayDeque<>();
+	private static volatile @Nullable Thread frameThread;
+
+	private TimeSlicedApplyScheduler() {
+		throw new UnsupportedOperationException("TimeSlicedApplyScheduler only contains static definitions.");
+	}
+
+	/**
+	 * Schedules work units, must be called by the thread of the apply executor.
+	 *
+	 * @param units    The work units.
+	 * @param executor The apply executor.
+	 * @param manager  The resource manager of the reload.
+	 * @return A future completed once every unit ran, or exceptionally as soon as a unit fails.
+	 */
+	public static CompletableFuture<Void> schedule(Iterator<? extends Runnable> units, Executor executor, ResourceManager manager) {
+		Job job = new Job(units);
+
+		// Only client resource reloads are guaranteed to be drained by the render loop.
+		if (Thread.currentThread() == frameThread && manager instanceof ResourceTypeHolder
+				&& ((ResourceTypeHolder) manager).woven$getResourceType() == ResourceType.CLIENT_RESOURCES) {
+			FRAME_JOBS.add(job);
+		} else {
+			runSlices(job, executor);
+		}
+
+		return job.future;
+	}
+
+	/**
+	 * Runs scheduled work units until the budget of the frame is spent, called at the start of each frame.
+	 */
+	public static void runFrame() {
+		frameThread = Thread.currentThread();
+
+		if (FRAME_JOBS.isEmpty()) {
+			return;
+		}
+
+		long deadline = System.nanoTime() + BUDGET_NANOS;
+
+		do {
+			// Round-robin between the jobs, so one long apply stage doesn't hold back the others.
+			Job job = FRAME_JOBS.poll();
+
+			if (!job.run(deadline)) {
+				FRAME_JOBS.add(job);
+			}
+		} while (!FRAME_JOBS.isEmpty() && System.nanoTime() < deadline);
+	}
+
+	private static void runSlices(Job job, Executor executor) {
+		executor.execute(() -> {
+			if (!job.run(System.nanoTime() + BUDGET_NANOS)) {
+				runSlices(job, executor);
+			}
+		});
+	}
+
+	/**
+	 * Represents a resource manager aware of the type of resources it reloads.
+	 */
+	public interface ResourceTypeHolder {
+		ResourceType woven$getResourceType();
+	}
+
+	/**
+	 * Represents the remaining work units of a sliced apply stage.
+	 */
+	private static final class Job {
+		private final Iterator<? extends Runnable> units;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private Job(Iterator<? extends Runnable> units) {
+			this.units = units;
+		}
+
+		/**
+		 * Runs work units until the deadline, at least one.
+		 *
+		 * @param deadline The deadline, as given by {@link System#nanoTime()}.
+		 * @return True if the job is done, else false.
+		 */
+		private boolean run(long deadline) {
+			try {
+				do {
+					if (!this.units.hasNext()) {
+						this.future.complete(null);
+						return true;
+					}
+
+					this.units.next().run();
+				} while (System.nanoTime() < deadline);
+			} catch (Throwable t) {
+				this.future.completeExceptionally(t);
+				return true;
+			}
+
+			return false;
+		}
+	}
+}
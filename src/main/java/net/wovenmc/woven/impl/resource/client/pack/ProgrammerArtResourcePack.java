@@ -25,32 +25,40 @@ import net.minecraft.resource.ResourceType;
 import net.minecraft.resource.metadata.ResourceMetadataReader;
 import net.minecraft.util.Identifier;
 import net.wovenmc.woven.api.resource.ModResourcePack;
+import net.wovenmc.woven.impl.resource.CompositeModResourcePack;
 import net.wovenmc.woven.mixin.resource.AbstractFileResourcePackAccessor;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
  * Represents the Programmer Art resource pack.
  * <p>
  * It contains the original resource pack provided by Minecraft and the mod Programmer Art extension resource packs.
+ * The resources of the mod extensions are looked up in an index of their owners, built once,
+ * so a lookup costs one probe of the original resource pack and one hash lookup.
  *
  * @version 0.1.0
  * @since 0.1.0
  */
 @Environment(EnvType.CLIENT)
 public class ProgrammerArtResourcePack implements ResourcePack {
-	private AbstractFileResourcePack originalResourcePack;
-	private List<ModResourcePack> modResourcePacks;
+	private final AbstractFileResourcePack originalResourcePack;
+	private final CompositeModResourcePack modResourcePack;
+	private final Map<ResourceType, Set<String>> namespaces = new ConcurrentHashMap<>();
 
 	public ProgrammerArtResourcePack(AbstractFileResourcePack originalResourcePack, List<ModResourcePack> modResourcePacks) {
 		this.originalResourcePack = originalResourcePack;
-		this.modResourcePacks = modResourcePacks;
+		this.modResourcePack = new CompositeModResourcePack(ResourceType.CLIENT_RESOURCES, modResourcePacks);
 	}
 
 	@Override
@@ -69,12 +77,11 @@ public class ProgrammerArtResourcePack implements ResourcePack {
 			return this.originalResourcePack.open(type, id);
 		}
 
-		for (int i = this.modResourcePacks.size() - 1; i >= 0; i--) {
-			ResourcePack pack = this.modResourcePacks.get(i);
+		List<ModResourcePack> owners = this.modResourcePack.getOwners(type, id);
 
-			if (pack.contains(type, id)) {
-				return pack.open(type, id);
-			}
+		if (!owners.isEmpty()) {
+			// The last mod resource pack overrides the previous ones.
+			return owners.get(owners.size() - 1).open(type, id);
 		}
 
 		throw new ResourceNotFoundException(((AbstractFileResourcePackAccessor) this.originalResourcePack).getBase(),
@@ -83,49 +90,24 @@ public class ProgrammerArtResourcePack implements ResourcePack {
 
 	@Override
 	public Collection<Identifier> findResources(ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter) {
-		Collection<Identifier> resources = this.originalResourcePack.findResources(type, namespace, prefix, maxDepth, pathFilter);
-
-		for (int i = this.modResourcePacks.size() - 1; i >= 0; i--) {
-			ResourcePack pack = this.modResourcePacks.get(i);
-			Collection<Identifier> modResources = pack.findResources(type, namespace, prefix, maxDepth, pathFilter);
-
-			for (Identifier resource : modResources) {
-				if (!resources.contains(resource)) {
-					resources.add(resource);
-				}
-			}
-		}
-
+		Set<Identifier> resources = new LinkedHashSet<>(this.originalResourcePack.findResources(type, namespace, prefix, maxDepth, pathFilter));
+		resources.addAll(this.modResourcePack.findResources(type, namespace, prefix, maxDepth, pathFilter));
 		return resources;
 	}
 
 	@Override
 	public boolean contains(ResourceType type, Identifier id) {
-		if (this.originalResourcePack.contains(type, id)) {
-			return true;
-		}
-
-		for (int i = this.modResourcePacks.size() - 1; i >= 0; i--) {
-			ResourcePack pack = this.modResourcePacks.get(i);
-
-			if (pack.contains(type, id)) {
-				return true;
-			}
-		}
-
-		return false;
+		return this.originalResourcePack.contains(type, id) || this.modResourcePack.contains(type, id);
 	}
 
 	@Override
 	public Set<String> getNamespaces(ResourceType type) {
-		Set<String> namespaces = this.originalResourcePack.getNamespaces(type);
-
-		for (int i = this.modResourcePacks.size() - 1; i >= 0; i--) {
-			ResourcePack pack = this.modResourcePacks.get(i);
-			namespaces.addAll(pack.getNamespaces(type));
-		}
-
-		return namespaces;
+		// Merge into a copy, the set returned by the original resource pack must not be modified.
+		return this.namespaces.computeIfAbsent(type, t -> {
+			Set<String> namespaces = new LinkedHashSet<>(this.originalResourcePack.getNamespaces(t));
+			namespaces.addAll(this.modResourcePack.getNamespaces(t));
+			return Collections.unmodifiableSet(namespaces);
+		});
 	}
 
 	@Override
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import net.wovenmc.woven.impl.resource.ResourceEvents;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Represents the JFR implementation of the resource loader events.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+public final class JfrResourceEventSink implements ResourceEvents.Sink {
+	private final Map<ResourceEvents.Type, EventType> types = new EnumMap<>(ResourceEvents.Type.class);
+
+	public JfrResourceEventSink() {
+		this.types.put(ResourceEvents.Type.OPEN, EventType.getEventType(ResourceOpenEvent.class));
+		this.types.put(ResourceEvents.Type.SCAN, EventType.getEventType(ResourceScanEvent.class));
+		this.types.put(ResourceEvents.Type.RELOAD_PHASE, EventType.getEventType(ReloadPhaseEvent.class));
+	}
+
+	@Override
+	public boolean isEnabled(ResourceEvents.Type type) {
+		return this.types.get(type).isEnabled();
+	}
+
+	@Override
+	public @Nullable Object begin(ResourceEvents.Type type) {
+		if (!this.isEnabled(type)) {
+			return null;
+		}
+
+		Event event;
+
+		switch (type) {
+		case OPEN:
+			event = new ResourceOpenEvent();
+			break;
+		case SCAN:
+			event = new ResourceScanEvent();
+			break;
+		default:
+			event = new ReloadPhaseEvent();
+			break;
+		}
+
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void commitOpen(Object object, String pack, String modId, String path, long bytes) {
+		ResourceOpenEvent event = (ResourceOpenEvent) object;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.pack = pack;
+			event.modId = modId;
+			event.path = path;
+			event.bytes = bytes;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void commitScan(Object object, String pack, String modId, String operation, String target, int results) {
+		ResourceScanEvent event = (ResourceScanEvent) object;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.pack = pack;
+			event.modId = modId;
+			event.operation = operation;
+			event.target = target;
+			event.results = results;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void commitReloadPhase(Object object, String listener, String phase, String resourceType) {
+		ReloadPhaseEvent event = (ReloadPhaseEvent) object;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.listener = listener;
+			event.phase = phase;
+			event.resourceType = resourceType;
+			event.commit();
+		}
+	}
+}
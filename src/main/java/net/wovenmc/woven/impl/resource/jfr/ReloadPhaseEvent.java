@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents the JFR event of a task of a reload listener phase.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+@Name("net.wovenmc.woven.ReloadPhase")
+@Label("Reload Listener Phase")
+@Description("A task of the prepare or apply phase of a resource reload listener.")
+@Category({"Woven", "Reload"})
+@StackTrace(false)
+class ReloadPhaseEvent extends Event {
+	@Label("Listener")
+	String listener;
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Resource Type")
+	String resourceType;
+}
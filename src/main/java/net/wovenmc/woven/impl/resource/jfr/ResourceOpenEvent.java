@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.impl.resource.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Represents the JFR event of a resource opened from a mod resource pack.
+ *
+ * @version 0.1.0
+ * @since 0.1.0
+ */
+@Name("net.wovenmc.woven.ResourceOpen")
+@Label("Resource Open")
+@Description("A resource opened from a mod resource pack.")
+@Category({"Woven", "Resources"})
+@StackTrace(false)
+class ResourceOpenEvent extends Event {
+	@Label("Resource Pack")
+	String pack;
+
+	@Label("Mod")
+	String modId;
+
+	@Label("Path")
+	String path;
+
+	@Label("Size")
+	@DataAmount
+	long bytes;
+}
@@ -16,13 +16,20 @@
 
 package net.wovenmc.woven.mixin.resource;
 
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.resource.DefaultResourcePack;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Identifier;
+import net.wovenmc.woven.impl.resource.ResourceContentCache;
+import net.wovenmc.woven.impl.resource.ResourcePackIndex;
+import net.wovenmc.woven.impl.resource.ResourcePackIndexCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -32,7 +39,12 @@ import java.io.InputStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Fix resource issues with mods.
@@ -41,10 +53,30 @@ import java.util.Map;
  */
 @Mixin(DefaultResourcePack.class)
 public class DefaultResourcePackMixin {
+	@Unique
+	private static final Logger WOVEN$LOGGER = LogManager.getLogger();
+	/**
+	 * The indexes of the Minecraft resource file systems, built once as the default pack is probed for every resource.
+	 */
+	@Unique
+	private static final Map<FileSystem, Optional<ResourcePackIndex>> WOVEN$INDEXES = new ConcurrentHashMap<>();
+
 	@Shadow
 	@Final
 	private static Map<ResourceType, FileSystem> typeToFileSystem;
 
+	@Unique
+	private static @Nullable ResourcePackIndex woven$getIndex(FileSystem fs) {
+		return WOVEN$INDEXES.computeIfAbsent(fs, f -> {
+			try {
+				return Optional.of(ResourcePackIndexCache.load(f.getPath("/")));
+			} catch (IOException e) {
+				WOVEN$LOGGER.warn("Cannot index the default resource pack, falling back to file system lookups.", e);
+				return Optional.empty();
+			}
+		}).orElse(null);
+	}
+
 	@Inject(method = "findInputStream", at = @At("HEAD"), cancellable = true)
 	private void onFindInputStream(ResourceType type, Identifier id, CallbackInfoReturnable<@Nullable InputStream> cir) {
 		if (DefaultResourcePack.resourcePath != null) {
@@ -60,13 +92,19 @@ public class DefaultResourcePackMixin {
 		}
 
 		Path path = fs.getPath(type.getDirectory(), id.getNamespace(), id.getPath());
+		ResourcePackIndex index = woven$getIndex(fs);
 
-		if (Files.isRegularFile(path)) {
-			try {
+		String filePath = woven$getFilePath(type, id);
+
+		try {
+			if (index != null && index.contains(filePath)) {
+				// The game JAR doesn't change while the game is running.
+				cir.setReturnValue(ResourceContentCache.open(fs, filePath, 0, index.getSize(filePath), () -> Files.newInputStream(path)));
+			} else if (index == null && Files.isRegularFile(path)) {
 				cir.setReturnValue(Files.newInputStream(path));
-			} catch (IOException e) {
-				// Something went wrong, vanilla doesn't log these errors though.
 			}
+		} catch (IOException e) {
+			// Something went wrong, vanilla doesn't log these errors though.
 		}
 	}
 
@@ -84,7 +122,33 @@ public class DefaultResourcePackMixin {
 			return;
 		}
 
-		Path path = fs.getPath(type.getDirectory(), id.getNamespace(), id.getPath());
-		cir.setReturnValue(Files.isRegularFile(path));
+		ResourcePackIndex index = woven$getIndex(fs);
+
+		if (index != null) {
+			cir.setReturnValue(index.contains(woven$getFilePath(type, id)));
+		} else {
+			cir.setReturnValue(Files.isRegularFile(fs.getPath(type.getDirectory(), id.getNamespace(), id.getPath())));
+		}
+	}
+
+	@Inject(method = "findResources", at = @At("HEAD"), cancellable = true)
+	private void onFindResources(ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter,
+			CallbackInfoReturnable<Collection<Identifier>> cir) {
+		if (DefaultResourcePack.resourcePath != null || FabricLoader.getInstance().isDevelopmentEnvironment()) {
+			// Fall through to Vanilla logic, it also looks up resources from the class path directories in development.
+			return;
+		}
+
+		FileSystem fs = typeToFileSystem.get(type);
+		ResourcePackIndex index = fs == null ? null : woven$getIndex(fs);
+
+		if (index != null) {
+			cir.setReturnValue(new HashSet<>(index.findResources(type, namespace, prefix, maxDepth, pathFilter)));
+		}
+	}
+
+	@Unique
+	private static String woven$getFilePath(ResourceType type, Identifier id) {
+		return type.getDirectory() + "/" + id.getNamespace() + "/" + id.getPath();
 	}
 }
@@ -16,12 +16,11 @@
 
 package net.wovenmc.woven.mixin.resource;
 
-import net.minecraft.resource.ResourcePack;
 import net.minecraft.resource.ResourcePackManager;
 import net.minecraft.resource.ResourcePackProfile;
 import net.minecraft.resource.ResourcePackSource;
 import net.minecraft.server.MinecraftServer;
-import net.wovenmc.woven.impl.resource.ModNioResourcePack;
+import net.wovenmc.woven.impl.resource.ModResourcePackInfo;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
@@ -44,9 +43,9 @@ public class MinecraftServerMixin {
 		if (profile != null
 				&& ((ResourcePackProfileAccessor) profile).getResourcePackSource() == ResourcePackSource.PACK_SOURCE_BUILTIN
 				&& !profileName.equals("vanilla")) {
-			ResourcePack pack = profile.createResourcePack();
+			ModResourcePackInfo info = ModResourcePackInfo.of(profile);
 			// Prevents automatic load for built-in data packs provided by mods.
-			return pack instanceof ModNioResourcePack && !((ModNioResourcePack) pack).getActivationType().isEnabledByDefault();
+			return info != null && !info.getActivationType().isEnabledByDefault();
 		}
 
 		return false;
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.mixin.resource;
+
+import net.minecraft.resource.NamespaceResourceManager;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceImpl;
+import net.minecraft.resource.ResourcePack;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import net.wovenmc.woven.api.resource.ModResourcePack;
+import net.wovenmc.woven.api.resource.ResourceQuery;
+import net.wovenmc.woven.impl.resource.CompositeModResourcePack;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Mixin(NamespaceResourceManager.class)
+public abstract class NamespaceResourceManagerMixin {
+	@Shadow
+	@Final
+	protected List<ResourcePack> packList;
+
+	@Shadow
+	@Final
+	private ResourceType type;
+
+	@Shadow
+	protected abstract InputStream open(Identifier id, ResourcePack pack) throws IOException;
+
+	@Shadow
+	protected abstract void validate(Identifier id) throws IOException;
+
+	@Redirect(method = "findResources", at = @At(value = "INVOKE", target = "Lnet/minecraft/resource/ResourcePack;findResources(Lnet/minecraft/resource/ResourceType;Ljava/lang/String;Ljava/lang/String;ILjava/util/function/Predicate;)Ljava/util/Collection;"))
+	private Collection<Identifier> onFindResources(ResourcePack pack, ResourceType type, String namespace, String prefix, int maxDepth, Predicate<String> pathFilter) {
+		// Push queries down to mod resource packs so they can be answered from their indexes.
+		if (pathFilter instanceof ResourceQuery && maxDepth == Integer.MAX_VALUE && pack instanceof ModResourcePack) {
+			return ((ModResourcePack) pack).findResources(type, namespace, prefix, (ResourceQuery) pathFilter);
+		}
+
+		return pack.findResources(type, namespace, prefix, maxDepth, pathFilter);
+	}
+
+	@Inject(method = "getAllResources", at = @At("HEAD"), cancellable = true)
+	private void onGetAllResources(Identifier id, CallbackInfoReturnable<List<Resource>> info) throws IOException {
+		boolean hasComposite = false;
+
+		for (ResourcePack pack : this.packList) {
+			if (pack instanceof CompositeModResourcePack) {
+				hasComposite = true;
+				break;
+			}
+		}
+
+		if (!hasComposite) {
+			return;
+		}
+
+		// Merged resources like tags must see every mod providing them, expand the composite pack to the owners of the resource.
+		this.validate(id);
+		List<Resource> resources = new ArrayList<>();
+		Identifier metadataId = new Identifier(id.getNamespace(), id.getPath() + ".mcmeta");
+
+		for (ResourcePack pack : this.packList) {
+			if (pack instanceof CompositeModResourcePack) {
+				for (ModResourcePack owner : ((CompositeModResourcePack) pack).getOwners(this.type, id)) {
+					this.addResource(resources, owner, id, metadataId);
+				}
+			} else if (pack.contains(this.type, id)) {
+				this.addResource(resources, pack, id, metadataId);
+			}
+		}
+
+		if (resources.isEmpty()) {
+			throw new FileNotFoundException(id.toString());
+		}
+
+		info.setReturnValue(resources);
+	}
+
+	private void addResource(List<Resource> resources, ResourcePack pack, Identifier id, Identifier metadataId) throws IOException {
+		InputStream metadata = pack.contains(this.type, metadataId) ? this.open(metadataId, pack) : null;
+		resources.add(new ResourceImpl(pack.getName(), id, this.open(id, pack), metadata));
+	}
+}
@@ -20,27 +20,57 @@ import net.minecraft.resource.ReloadableResourceManagerImpl;
 import net.minecraft.resource.ResourceReloadListener;
 import net.minecraft.resource.ResourceReloadMonitor;
 import net.minecraft.resource.ResourceType;
-import net.minecraft.util.Unit;
+import net.wovenmc.woven.impl.resource.ModNioResourcePack;
+import net.wovenmc.woven.impl.resource.ReloadCancellation;
+import net.wovenmc.woven.impl.resource.ReloadListenerInstrumentation;
+import net.wovenmc.woven.impl.resource.ResourceLoaderConfig;
 import net.wovenmc.woven.impl.resource.ResourceManagerHelperImpl;
+import net.wovenmc.woven.impl.resource.ResourceReadThrottle;
+import net.wovenmc.woven.impl.resource.TimeSlicedApplyScheduler;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
 
 @Mixin(ReloadableResourceManagerImpl.class)
-public class ReloadableResourceManagerImplMixin {
+public class ReloadableResourceManagerImplMixin implements TimeSlicedApplyScheduler.ResourceTypeHolder {
 	@Final
 	@Shadow
 	private ResourceType type;
 
-	@Inject(method = "beginReloadInner", at = @At("HEAD"))
-	private void reload(Executor prepareExecutor, Executor applyExecutor, List<ResourceReloadListener> listeners, CompletableFuture<Unit> initialStage, CallbackInfoReturnable<ResourceReloadMonitor> cir) {
-		ResourceManagerHelperImpl.sort(this.type, listeners);
+	@Override
+	public ResourceType woven$getResourceType() {
+		return this.type;
+	}
+
+	@Inject(method = "beginMonitoredReload", at = @At("HEAD"))
+	private void onBeginMonitoredReload(CallbackInfoReturnable<ResourceReloadMonitor> cir) {
+		// Before the packs are added, so directory-backed packs index their current files.
+		ModNioResourcePack.onReloadStarted();
+	}
+
+	@ModifyVariable(method = "beginReloadInner", at = @At("HEAD"), argsOnly = true)
+	private List<ResourceReloadListener> reload(List<ResourceReloadListener> listeners) {
+		// Sort a copy, the listeners of the resource manager must stay untouched as they are reused by every reload.
+		List<ResourceReloadListener> sorted = ResourceManagerHelperImpl.sort(this.type, listeners);
+
+		if (ResourceLoaderConfig.SUPERSEDE_RELOADS || ResourceReadThrottle.isEnabled()) {
+			// Expose the cancellation token of this reload to the listeners, cancelling the reload it supersedes,
+			// and throttle the reads of the prepare stage.
+			sorted = ReloadCancellation.begin(this.type, sorted);
+		}
+
+		return sorted;
+	}
+
+	@Inject(method = "beginReloadInner", at = @At("RETURN"))
+	private void onReloadStarted(CallbackInfoReturnable<ResourceReloadMonitor> cir) {
+		// Publish the listener statistics once the whole reload completes, even if it fails.
+		ReloadListenerInstrumentation.onReloadStarted(cir.getReturnValue());
 	}
 }
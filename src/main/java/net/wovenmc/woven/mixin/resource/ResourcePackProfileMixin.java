@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.mixin.resource;
+
+import net.minecraft.resource.ResourcePackProfile;
+import net.wovenmc.woven.impl.resource.ModResourcePackInfo;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(ResourcePackProfile.class)
+public class ResourcePackProfileMixin implements ModResourcePackInfo.Holder {
+	@Unique
+	private ModResourcePackInfo woven$modResourcePackInfo;
+
+	@Override
+	public @Nullable ModResourcePackInfo woven$getModResourcePackInfo() {
+		return this.woven$modResourcePackInfo;
+	}
+
+	@Override
+	public void woven$setModResourcePackInfo(ModResourcePackInfo info) {
+		this.woven$modResourcePackInfo = info;
+	}
+}
@@ -18,12 +18,11 @@ package net.wovenmc.woven.mixin.resource.client;
 
 import net.minecraft.client.gui.screen.world.CreateWorldScreen;
 import net.minecraft.resource.DataPackSettings;
-import net.minecraft.resource.ResourcePack;
 import net.minecraft.resource.ResourcePackManager;
 import net.minecraft.resource.ResourcePackProfile;
 import net.minecraft.resource.ResourceType;
 import net.minecraft.util.Pair;
-import net.wovenmc.woven.impl.resource.ModNioResourcePack;
+import net.wovenmc.woven.impl.resource.ModResourcePackInfo;
 import net.wovenmc.woven.impl.resource.ModResourcePackProvider;
 import net.wovenmc.woven.mixin.resource.ResourcePackManagerAccessor;
 import org.spongepowered.asm.mixin.Mixin;
@@ -60,9 +59,9 @@ public class CreateWorldScreenMixin {
 		// This ensure that any built-in registered data packs by mods which needs to be enabled by default are
 		// as the data pack screen automatically put any data pack as disabled except the Default data pack.
 		for (ResourcePackProfile profile : moddedResourcePacks) {
-			ResourcePack pack = profile.createResourcePack();
+			ModResourcePackInfo info = ModResourcePackInfo.of(profile);
 
-			if (pack instanceof ModNioResourcePack && ((ModNioResourcePack) pack).getActivationType().isEnabledByDefault()) {
+			if (info != null && info.getActivationType().isEnabledByDefault()) {
 				enabled.add(profile.getName());
 			} else {
 				disabled.add(profile.getName());
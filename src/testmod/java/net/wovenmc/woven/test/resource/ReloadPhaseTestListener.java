@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 WovenMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wovenmc.woven.test.resource;
+
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+import net.wovenmc.woven.api.resource.IdentifiableResourceReloadListener;
+import net.wovenmc.woven.api.resource.ResourceManagerHelper;
+import net.wovenmc.woven.api.resource.ResourceReloadPhase;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a reload listener checking that its dependency is applied before itself.
+ */
+public class ReloadPhaseTestListener implements IdentifiableResourceReloadListener {
+	private static final Logger LOGGER = LogManager.getLogger();
+
+	private final Identifier id;
+	private final ResourceReloadPhase phase;
+	private final @Nullable ReloadPhaseTestListener dependency;
+	private final AtomicInteger applyCount = new AtomicInteger();
+
+	private ReloadPhaseTestListener(String name, ResourceReloadPhase phase, @Nullable ReloadPhaseTestListener dependency) {
+		this.id = new Identifier(ResourceLoaderTestMod.NAMESPACE, name);
+		this.phase = phase;
+		this.dependency = dependency;
+	}
+
+	/**
+	 * Registers a chain of listeners: c (deferred), b (deferred, depends on c) and a (normal, depends on b).
+	 * The normal phase of a must reach c through b, else c would be deferred and applied after b.
+	 */
+	public static void register() {
+		ReloadPhaseTestListener c = new ReloadPhaseTestListener("phase_c", ResourceReloadPhase.DEFERRED, null);
+		ReloadPhaseTestListener b = new ReloadPhaseTestListener("phase_b", ResourceReloadPhase.DEFERRED, c);
+		ReloadPhaseTestListener a = new ReloadPhaseTestListener("phase_a", ResourceReloadPhase.NORMAL, b);
+		ResourceManagerHelper helper = ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES);
+		helper.registerReloadListener(c);
+		helper.registerReloadListener(b);
+		helper.registerReloadListener(a);
+	}
+
+	@Override
+	public CompletableFuture<Void> reload(Synchronizer synchronizer, ResourceManager manager, Profiler prepareProfiler, Profiler applyProfiler,
+			Executor prepareExecutor, Executor applyExecutor) {
+		return synchronizer.<Void>whenPrepared(null).thenRunAsync(this::apply, applyExecutor);
+	}
+
+	private void apply() {
+		int count = this.applyCount.incrementAndGet();
+
+		if (this.dependency != null && this.dependency.applyCount.get() < count) {
+			LOGGER.error("Reload listener \"{}\" was applied before its dependency \"{}\".", this.id, this.dependency.id);
+		} else {
+			LOGGER.info("Reload listener \"{}\" was applied in order.", this.id);
+		}
+	}
+
+	@Override
+	public Identifier getIdentifier() {
+		return this.id;
+	}
+
+	@Override
+	public Collection<Identifier> getDependencies() {
+		return this.dependency == null ? Collections.emptyList() : Collections.singletonList(this.dependency.id);
+	}
+
+	@Override
+	public ResourceReloadPhase getPhase() {
+		return this.phase;
+	}
+}
@@ -42,5 +42,7 @@ public class ResourceLoaderTestMod implements ModInitializer {
 		} else {
 			LOGGER.warn("Failed to register the built-in resource pack.");
 		}
+
+		ReloadPhaseTestListener.register();
 	}
 }